@@ -0,0 +1,8 @@
+#!/bin/bash
+# Lets the standby in docker-compose's "replica" profile stream WAL from this server.
+# Runs once, on first init of the db volume; wal_level and max_wal_senders are set on the command line.
+set -e
+psql -v ON_ERROR_STOP=1 --username "$POSTGRES_USER" --dbname "$POSTGRES_DB" <<-SQL
+  CREATE ROLE replicator WITH REPLICATION LOGIN PASSWORD '${REPLICATION_PASSWORD:-replicator_pass}';
+SQL
+echo "host replication replicator all scram-sha-256" >> "$PGDATA/pg_hba.conf"
@@ -0,0 +1,12 @@
+#!/bin/bash
+# Hot standby of the db service: clones it with pg_basebackup on first start, then streams from it.
+set -e
+export PGPASSWORD="${REPLICATION_PASSWORD:-replicator_pass}"
+until pg_isready -h db -U replicator -d postgres -q; do sleep 1; done
+if [ ! -s "$PGDATA/PG_VERSION" ]; then
+  # -R writes primary_conninfo and standby.signal, so the server starts as a standby
+  pg_basebackup -h db -U replicator -D "$PGDATA" -X stream -R -P
+  chmod 700 "$PGDATA"
+fi
+chown -R postgres:postgres "$PGDATA"
+exec gosu postgres postgres -c hot_standby=on -c hot_standby_feedback=on
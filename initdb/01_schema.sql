@@ -1,9 +1,19 @@
-DROP TABLE IF EXISTS events CASCADE
+DROP TABLE IF EXISTS match_events CASCADE
+@@
+DROP TABLE IF EXISTS standings CASCADE
+@@
+DROP TABLE IF EXISTS standings_history CASCADE
+@@
+DROP TABLE IF EXISTS match_bookings CASCADE
 @@
 DROP TABLE IF EXISTS matches CASCADE
 @@
 DROP TABLE IF EXISTS teams CASCADE
 @@
+DROP TABLE IF EXISTS seasons CASCADE
+@@
+DROP TABLE IF EXISTS competitions CASCADE
+@@
 
 CREATE EXTENSION IF NOT EXISTS btree_gist
 @@
@@ -18,8 +28,35 @@ CREATE TABLE teams (
 )
 @@
 
+CREATE TABLE competitions (
+  id   SERIAL PRIMARY KEY,
+  code VARCHAR(20)  NOT NULL UNIQUE,
+  name VARCHAR(100) NOT NULL
+)
+@@
+
+-- One row per competition season. is_current marks the season that new results, rebuilds and the
+-- live table work on; at most one per competition.
+CREATE TABLE seasons (
+  id             SERIAL PRIMARY KEY,
+  competition_id INT  NOT NULL REFERENCES competitions(id),
+  label          VARCHAR(20) NOT NULL,
+  starts_on      DATE NOT NULL,
+  ends_on        DATE NOT NULL,
+  is_current     BOOLEAN NOT NULL DEFAULT FALSE,
+  UNIQUE (competition_id, label),
+  CONSTRAINT chk_season_dates CHECK (starts_on <= ends_on),
+  CONSTRAINT ex_season_overlap EXCLUDE USING gist (competition_id WITH =, daterange(starts_on, ends_on, '[]') WITH &&)
+)
+@@
+CREATE UNIQUE INDEX ux_seasons_current ON seasons(competition_id) WHERE is_current
+@@
+
+-- Partitioned by season: a season's rebuild or table scan reads only its own partition, so years of
+-- history cost nothing. Each season gets its partition from create_season_partition().
 CREATE TABLE matches (
-  id SERIAL PRIMARY KEY,
+  id SERIAL,
+  season_id    INT NOT NULL REFERENCES seasons(id),
   home_team_id INT NOT NULL REFERENCES teams(id),
   away_team_id INT NOT NULL REFERENCES teams(id),
   kickoff      TIMESTAMPTZ NOT NULL,
@@ -28,33 +65,104 @@ CREATE TABLE matches (
   away_goals   INT NOT NULL DEFAULT 0,
   status       VARCHAR(20) NOT NULL DEFAULT 'SCHEDULED'
                CHECK (status IN ('SCHEDULED','LIVE','FT','POSTPONED','CANCELLED')),
+  -- JPA @Version: bumped by every entity update, compared against If-Match on result writes
+  version      BIGINT NOT NULL DEFAULT 0,
   created_at   TIMESTAMPTZ DEFAULT NOW(),
 
+  PRIMARY KEY (id, season_id),
   CONSTRAINT chk_home_away_different CHECK (home_team_id <> away_team_id),
   CONSTRAINT chk_non_negative_scores CHECK (home_goals >= 0 AND away_goals >= 0),
 
-  CONSTRAINT ux_match_unique_pair_time UNIQUE (home_team_id, away_team_id, kickoff)
+  -- unique keys on a partitioned table must include the partition key; double booking is in match_bookings
+  CONSTRAINT ux_match_unique_pair_time UNIQUE (home_team_id, away_team_id, kickoff, season_id)
+) PARTITION BY LIST (season_id)
+@@
+
+CREATE OR REPLACE FUNCTION create_season_partition(sid INT) RETURNS void AS $$
+BEGIN
+  EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF matches FOR VALUES IN (%s)', 'matches_s' || sid, sid);
+END
+$$ LANGUAGE plpgsql
+@@
+
+-- One row per side of every match, unpartitioned. Its key is the no-double-booking rule across all seasons
+-- and competitions: a team plays at most one match per kickoff, home or away. A unique key on matches would
+-- have to include season_id and so would only hold within a season. It also maps a match id to its season,
+-- so a lookup by id reads one partition instead of probing every season's index.
+CREATE TABLE match_bookings (
+  team_id   INT NOT NULL REFERENCES teams(id),
+  kickoff   TIMESTAMPTZ NOT NULL,
+  match_id  INT NOT NULL,
+  season_id INT NOT NULL,
+  CONSTRAINT ux_team_double_book PRIMARY KEY (team_id, kickoff)
 )
 @@
+CREATE INDEX idx_match_bookings_match ON match_bookings(match_id) INCLUDE (season_id)
+@@
 
-CREATE INDEX idx_matches_kickoff ON matches(kickoff)
+-- kept by trigger so every writer (JPA, the fixture COPY import, seed scripts) books alongside the match
+CREATE OR REPLACE FUNCTION book_match() RETURNS trigger AS $$
+BEGIN
+  IF TG_OP IN ('UPDATE', 'DELETE') THEN
+    DELETE FROM match_bookings WHERE match_id = OLD.id;
+  END IF;
+  IF TG_OP IN ('INSERT', 'UPDATE') THEN
+    INSERT INTO match_bookings (team_id, kickoff, match_id, season_id)
+    VALUES (NEW.home_team_id, NEW.kickoff, NEW.id, NEW.season_id),
+           (NEW.away_team_id, NEW.kickoff, NEW.id, NEW.season_id);
+  END IF;
+  RETURN NULL;
+END
+$$ LANGUAGE plpgsql
 @@
-CREATE INDEX idx_matches_status  ON matches(status)
+CREATE TRIGGER trg_match_bookings
+  AFTER INSERT OR DELETE ON matches
+  FOR EACH ROW EXECUTE FUNCTION book_match()
 @@
-CREATE INDEX idx_matches_teams   ON matches(home_team_id, away_team_id)
+-- Hibernate's UPDATE sets every column, so UPDATE OF alone would fire on every score or status write; the
+-- WHEN keeps a result from re-booking both teams
+CREATE TRIGGER trg_match_bookings_moved
+  AFTER UPDATE OF home_team_id, away_team_id, kickoff, season_id ON matches
+  FOR EACH ROW
+  WHEN ((OLD.home_team_id, OLD.away_team_id, OLD.kickoff, OLD.season_id)
+        IS DISTINCT FROM (NEW.home_team_id, NEW.away_team_id, NEW.kickoff, NEW.season_id))
+  EXECUTE FUNCTION book_match()
 @@
 
-ALTER TABLE matches
-  ADD CONSTRAINT ex_home_double_book
-  EXCLUDE USING gist (home_team_id WITH =, kickoff WITH =)
+CREATE INDEX idx_matches_kickoff_id        ON matches(kickoff, id)
+@@
+CREATE INDEX idx_matches_status_kickoff_id ON matches(status, kickoff, id)
+@@
+CREATE INDEX idx_matches_teams   ON matches(home_team_id, away_team_id)
+@@
+CREATE INDEX idx_matches_home_kickoff ON matches(home_team_id, kickoff, id) INCLUDE (status)
 @@
-ALTER TABLE matches
-  ADD CONSTRAINT ex_away_double_book
-  EXCLUDE USING gist (away_team_id WITH =, kickoff WITH =)
+CREATE INDEX idx_matches_away_kickoff ON matches(away_team_id, kickoff, id) INCLUDE (status)
 @@
 
-CREATE TABLE IF NOT EXISTS standings (
-  team_id INT PRIMARY KEY REFERENCES teams(id) ON DELETE CASCADE,
+-- Append-only outbox, one row per match change, written in the same transaction as the change.
+-- No FK to matches: it is a log, and readers only ever scan it by id.
+CREATE TABLE match_events (
+  id              BIGSERIAL PRIMARY KEY,
+  match_id        INT NOT NULL,
+  type            VARCHAR(10) NOT NULL CHECK (type IN ('CREATED','STATUS','SCORE')),
+  home_team_id    INT NOT NULL,
+  away_team_id    INT NOT NULL,
+  kickoff         TIMESTAMPTZ NOT NULL,
+  home_goals      INT NOT NULL,
+  away_goals      INT NOT NULL,
+  status          VARCHAR(20) NOT NULL,
+  prev_status     VARCHAR(20),
+  prev_home_goals INT,
+  prev_away_goals INT,
+  recorded_at     TIMESTAMPTZ NOT NULL DEFAULT NOW()
+)
+@@
+
+CREATE TABLE standings (
+  competition_id INT NOT NULL REFERENCES competitions(id),
+  season_id      INT NOT NULL REFERENCES seasons(id),
+  team_id        INT NOT NULL REFERENCES teams(id) ON DELETE CASCADE,
   played  INT NOT NULL DEFAULT 0,
   won     INT NOT NULL DEFAULT 0,
   drawn   INT NOT NULL DEFAULT 0,
@@ -63,6 +171,27 @@ CREATE TABLE IF NOT EXISTS standings (
   ga      INT NOT NULL DEFAULT 0,
   gd      INT NOT NULL DEFAULT 0,
   points  INT NOT NULL DEFAULT 0,
-  last_updated TIMESTAMPTZ NOT NULL DEFAULT NOW()
+  last_updated TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+  PRIMARY KEY (competition_id, season_id, team_id)
 )
 @@
+
+-- Cumulative table at the end of each matchweek (Monday-based UTC week with a finished match)
+CREATE TABLE standings_history (
+  season_id INT NOT NULL REFERENCES seasons(id),
+  week     DATE NOT NULL,
+  team_id  INT  NOT NULL REFERENCES teams(id) ON DELETE CASCADE,
+  played   INT  NOT NULL,
+  won      INT  NOT NULL,
+  drawn    INT  NOT NULL,
+  lost     INT  NOT NULL,
+  gf       INT  NOT NULL,
+  ga       INT  NOT NULL,
+  gd       INT  NOT NULL,
+  points   INT  NOT NULL,
+  position INT  NOT NULL DEFAULT 0,
+  PRIMARY KEY (season_id, week, team_id)
+)
+@@
+CREATE INDEX idx_standings_history_team ON standings_history(season_id, team_id, week) INCLUDE (position, points)
+@@
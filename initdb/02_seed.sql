@@ -24,3 +24,28 @@ ON CONFLICT DO NOTHING
 
 SET TIME ZONE 'UTC'
 @@
+
+INSERT INTO competitions (code, name) VALUES ('PL', 'Premier League')
+ON CONFLICT DO NOTHING
+@@
+
+INSERT INTO seasons (competition_id, label, starts_on, ends_on, is_current)
+SELECT c.id, v.label, v.starts_on, v.ends_on, v.is_current
+FROM competitions c
+CROSS JOIN (VALUES
+  ('2025-26', DATE '2025-07-01', DATE '2026-06-30', FALSE),
+  ('2026-27', DATE '2026-07-01', DATE '2027-06-30', TRUE)
+) AS v(label, starts_on, ends_on, is_current)
+WHERE c.code = 'PL'
+ON CONFLICT DO NOTHING
+@@
+
+SELECT create_season_partition(id) FROM seasons
+@@
+
+INSERT INTO standings (competition_id, season_id, team_id)
+SELECT s.competition_id, s.id, t.id
+FROM seasons s CROSS JOIN teams t
+WHERE s.is_current
+ON CONFLICT DO NOTHING
+@@
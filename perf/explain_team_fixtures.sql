@@ -0,0 +1,40 @@
+-- Plans for the team-fixture lookups in MatchRepository, run against perf/seed_50k.sql.
+-- Every branch should be an Index Scan on idx_matches_home_kickoff / idx_matches_away_kickoff
+-- feeding a Merge Append (or a small Sort); a Seq Scan or BitmapOr means an index is missing.
+--
+--   psql -h localhost -U pl_user -d pl_tracker -f perf/explain_team_fixtures.sql
+
+\echo '--- findTeamMatches(teamId)'
+EXPLAIN (ANALYZE, BUFFERS)
+(SELECT * FROM matches WHERE home_team_id = 7)
+UNION ALL
+(SELECT * FROM matches WHERE away_team_id = 7)
+ORDER BY kickoff, id;
+
+\echo '--- findTeamMatchesByStatus(teamId, status)'
+EXPLAIN (ANALYZE, BUFFERS)
+(SELECT * FROM matches WHERE home_team_id = 7 AND status = 'FT')
+UNION ALL
+(SELECT * FROM matches WHERE away_team_id = 7 AND status = 'FT')
+ORDER BY kickoff, id;
+
+\echo '--- teamPageByStatusAfter(teamId, status, cursor, 50)'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM (
+  (SELECT * FROM matches WHERE home_team_id = 7 AND status = 'FT'
+     AND (kickoff, id) > (TIMESTAMPTZ '2018-01-01 00:00:00+00', 0)
+   ORDER BY kickoff, id LIMIT 50)
+  UNION ALL
+  (SELECT * FROM matches WHERE away_team_id = 7 AND status = 'FT'
+     AND (kickoff, id) > (TIMESTAMPTZ '2018-01-01 00:00:00+00', 0)
+   ORDER BY kickoff, id LIMIT 50)
+) t
+ORDER BY kickoff, id
+LIMIT 50;
+
+\echo '--- previous OR-predicate query, for comparison'
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM matches
+WHERE (home_team_id = 7 OR away_team_id = 7)
+  AND ('FT' IS NULL OR status = 'FT')
+ORDER BY kickoff;
@@ -0,0 +1,33 @@
+-- Synthetic multi-season history for load tests: 50,000 matches, kickoffs two hours apart
+-- (so no team is ever double-booked), 90% FT and the rest SCHEDULED.
+--
+--   psql -h localhost -U pl_user -d pl_tracker -f perf/seed_50k.sql
+--   curl -X POST localhost:8080/admin/standings/rebuild
+--
+-- Adds the PL seasons 2014-15 .. 2024-25 (each with its own matches partition) so every kickoff has a season.
+
+INSERT INTO seasons (competition_id, label, starts_on, ends_on)
+SELECT c.id, y || '-' || lpad(((y + 1) % 100)::text, 2, '0'),
+       make_date(y, 7, 1), make_date(y + 1, 6, 30)
+FROM competitions c CROSS JOIN generate_series(2014, 2024) AS y
+WHERE c.code = 'PL'
+ON CONFLICT (competition_id, label) DO NOTHING;
+
+SELECT create_season_partition(id) FROM seasons;
+
+INSERT INTO matches (season_id, home_team_id, away_team_id, kickoff, home_goals, away_goals, status)
+SELECT (SELECT s.id FROM seasons s JOIN competitions c ON c.id = s.competition_id
+        WHERE c.code = 'PL' AND m.kickoff::date BETWEEN s.starts_on AND s.ends_on),
+       m.home_team_id, m.away_team_id, m.kickoff, m.home_goals, m.away_goals, m.status
+FROM (
+SELECT 1 + (i % 20) AS home_team_id,
+       1 + ((i % 20) + 1 + (i / 20) % 19) % 20 AS away_team_id,
+       TIMESTAMPTZ '2014-08-01 12:00:00+00' + i * INTERVAL '2 hours' AS kickoff,
+       CASE WHEN i < 45000 THEN floor(random() * 4)::int ELSE 0 END AS home_goals,
+       CASE WHEN i < 45000 THEN floor(random() * 3)::int ELSE 0 END AS away_goals,
+       CASE WHEN i < 45000 THEN 'FT' ELSE 'SCHEDULED' END AS status
+FROM generate_series(0, 49999) AS i
+) m
+ON CONFLICT DO NOTHING;
+
+ANALYZE matches;
@@ -0,0 +1,38 @@
+#!/usr/bin/env bash
+# Startup time and memory of the service, built three ways, against the docker-compose Postgres.
+#
+#   ./gradlew bootJar cdsArchive nativeCompile
+#   perf/startup.sh jar|cds|native [runs]
+#
+# Each run launches the service, polls /actuator/health until it answers, then reports the wall time to that
+# point and the process's resident set (VmRSS) and peak (VmHWM) from /proc. Linux only.
+set -euo pipefail
+
+mode=${1:?usage: perf/startup.sh jar|cds|native [runs]}
+runs=${2:-5}
+port=${PORT:-8080}
+jar=$(ls build/libs/*.jar | grep -v -- '-plain.jar' | head -1)
+
+case "$mode" in
+  jar)    cmd=(java -jar "$jar") ;;
+  cds)    cmd=(java -XX:SharedArchiveFile="$PWD/build/cds/application.jsa" -Dspring.aot.enabled=true
+               -jar "$PWD/build/cds/$(basename "$jar")") ;;
+  native) cmd=(build/native/nativeCompile/pl-tracker) ;;
+  *)      echo "unknown mode: $mode" >&2; exit 2 ;;
+esac
+
+for i in $(seq "$runs"); do
+  start=$(date +%s%N)
+  "${cmd[@]}" --server.port="$port" > "build/startup-$mode.log" 2>&1 &
+  pid=$!
+  until curl -sf "http://localhost:$port/actuator/health" > /dev/null; do
+    kill -0 "$pid" 2> /dev/null || { echo "exited during startup; see build/startup-$mode.log" >&2; exit 1; }
+    sleep 0.02
+  done
+  ms=$(( ($(date +%s%N) - start) / 1000000 ))
+  rss=$(awk '/^VmRSS/ {print int($2 / 1024)}' "/proc/$pid/status")
+  hwm=$(awk '/^VmHWM/ {print int($2 / 1024)}' "/proc/$pid/status")
+  printf '%-6s run %d: %5d ms to healthy, rss %4d MB, peak %4d MB\n' "$mode" "$i" "$ms" "$rss" "$hwm"
+  kill "$pid"
+  wait "$pid" 2> /dev/null || true
+done
@@ -0,0 +1,35 @@
+// k6 load test for GET /teams/{id}/fixtures against perf/seed_50k.sql.
+//
+//   k6 run perf/team_fixtures.js                      # keyset page of 50 FT fixtures
+//   k6 run -e QUERY='status=FT' perf/team_fixtures.js # full FT history per team
+//
+// The summary prints p(99) for http_req_duration; the threshold fails the run above P99_MS.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE = __ENV.BASE_URL || 'http://localhost:8080';
+const QUERY = __ENV.QUERY || 'status=FT&limit=50';
+
+export const options = {
+  scenarios: {
+    team_pages: {
+      executor: 'constant-arrival-rate',
+      rate: Number(__ENV.RATE || 500),
+      timeUnit: '1s',
+      duration: __ENV.DURATION || '60s',
+      preAllocatedVUs: 100,
+      maxVUs: 500,
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  thresholds: {
+    http_req_duration: [`p(99)<${__ENV.P99_MS || 50}`],
+    http_req_failed: ['rate<0.001'],
+  },
+};
+
+export default function () {
+  const team = 1 + Math.floor(Math.random() * 20);
+  const res = http.get(`${BASE}/teams/${team}/fixtures?${QUERY}`);
+  check(res, { 'status is 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,52 @@
+// k6 comparison of platform-thread vs virtual-thread request handling, REST and SOAP mixed.
+// Seed with perf/seed_50k.sql, then run once per mode and compare http_reqs/s and p(99):
+//
+//   ./gradlew bootRun                                              &&  k6 run perf/vthreads_load.js
+//   ./gradlew bootRun --args='--spring.profiles.active=vthreads'  &&  k6 run perf/vthreads_load.js
+//
+// SOAP writes re-submit a score derived from the match id, so after the first pass they are
+// standings no-ops and the table stays stable across runs.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE = __ENV.BASE_URL || 'http://localhost:8080';
+const MAX_MATCH = Number(__ENV.MAX_MATCH || 45000);
+
+export const options = {
+  scenarios: {
+    rest_reads: {
+      executor: 'constant-arrival-rate', exec: 'restReads',
+      rate: Number(__ENV.READ_RATE || 2000), timeUnit: '1s', duration: __ENV.DURATION || '60s',
+      preAllocatedVUs: 200, maxVUs: 2000,
+    },
+    soap_writes: {
+      executor: 'constant-arrival-rate', exec: 'soapWrites',
+      rate: Number(__ENV.WRITE_RATE || 200), timeUnit: '1s', duration: __ENV.DURATION || '60s',
+      preAllocatedVUs: 50, maxVUs: 500,
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+export function restReads() {
+  const team = 1 + Math.floor(Math.random() * 20);
+  const res = Math.random() < 0.5
+    ? http.get(`${BASE}/teams/${team}/fixtures?status=FT&limit=50`, { tags: { name: 'team-fixtures' } })
+    : http.get(`${BASE}/matches?limit=100`, { tags: { name: 'matches-page' } });
+  check(res, { 'read ok': (r) => r.status === 200 });
+}
+
+export function soapWrites() {
+  const id = 1 + Math.floor(Math.random() * MAX_MATCH);
+  const body = `<soapenv:Envelope xmlns:soapenv="http://schemas.xmlsoap.org/soap/envelope/" xmlns:m="http://pltracker.com/match">
+  <soapenv:Body>
+    <m:recordResultRequest>
+      <m:dbMatchId>${id}</m:dbMatchId>
+      <m:homeScore>${id % 4}</m:homeScore>
+      <m:awayScore>${id % 3}</m:awayScore>
+    </m:recordResultRequest>
+  </soapenv:Body>
+</soapenv:Envelope>`;
+  const res = http.post(`${BASE}/ws`, body, { headers: { 'Content-Type': 'text/xml' }, tags: { name: 'soap-record' } });
+  check(res, { 'soap ok': (r) => r.status === 200 });
+}
@@ -0,0 +1,70 @@
+package app.premierleague.bench;
+
+import app.premierleague.domain.Match;
+import app.premierleague.domain.Standing;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON encoding behind GET /matches and GET /table, with the ObjectMapper Spring Boot would build.
+ *
+ * matchesList materializes every row and writes one array, the way the plain listing does;
+ * matchesNdjson creates and writes one row at a time, the way the NDJSON stream does. Both write to a
+ * discarding stream so only encoding and allocation are measured; run with the gc profiler (the
+ * default in build.gradle) and compare gc.alloc.rate.norm. MatchListingHeapBenchmark covers the
+ * retained-heap side of the same comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonBenchmark {
+
+  static final OutputStream DISCARD = OutputStream.nullOutputStream();
+
+  @Param({"380", "10000", "100000"})
+  int matches;
+
+  ObjectMapper mapper;
+  SyntheticSeason season;
+  List<Standing> table;
+
+  @Setup
+  public void setup() {
+    mapper = Jackson2ObjectMapperBuilder.json().build();
+    season = SyntheticSeason.of(matches);
+    table = SyntheticSeason.table();
+  }
+
+  @Benchmark
+  public void matchesList() throws IOException {
+    mapper.writeValue(DISCARD, season.matches());
+  }
+
+  @Benchmark
+  public void matchesNdjson() throws IOException {
+    writeNdjson(mapper, season, DISCARD);
+  }
+
+  @Benchmark
+  public byte[] table() throws IOException {
+    return mapper.writeValueAsBytes(table);
+  }
+
+  static void writeNdjson(ObjectMapper mapper, SyntheticSeason season, OutputStream out) throws IOException {
+    try (var gen = mapper.getFactory().createGenerator(out)) {
+      gen.setRootValueSeparator(new SerializedString("\n"));
+      for (int i = 0; i < season.size; i++) {
+        Match m = season.match(i);
+        gen.writeObject(m);
+      }
+      gen.writeRaw('\n');
+    }
+  }
+}
@@ -0,0 +1,75 @@
+package app.premierleague.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Peak retained heap of the full /matches list versus the NDJSON stream.
+ *
+ * Allocation per operation is about the same for both (every row becomes a Match either way); what
+ * differs is how much of it stays reachable. The fork runs with a small young generation so rows that
+ * are still referenced get promoted, and peakRetainedBytes reports the growth of the survivor and old
+ * pools over the operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-XX:+UseSerialGC", "-Xmx512m", "-Xmn8m"})
+public class MatchListingHeapBenchmark {
+
+  @Param({"380", "10000", "100000"})
+  int matches;
+
+  ObjectMapper mapper;
+  SyntheticSeason season;
+  List<MemoryPoolMXBean> pools;
+  long baseline;
+
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  @State(Scope.Thread)
+  public static class Heap {
+    public long peakRetainedBytes;
+  }
+
+  @Setup
+  public void setup() {
+    mapper = Jackson2ObjectMapperBuilder.json().build();
+    season = SyntheticSeason.of(matches);
+    pools = ManagementFactory.getMemoryPoolMXBeans().stream()
+        .filter(p -> p.getType() == MemoryType.HEAP && !p.getName().contains("Eden"))
+        .toList();
+  }
+
+  @Setup(Level.Invocation)
+  public void settle() {
+    System.gc();
+    pools.forEach(MemoryPoolMXBean::resetPeakUsage);
+    baseline = pools.stream().mapToLong(p -> p.getUsage().getUsed()).sum();
+  }
+
+  @Benchmark
+  public void matchesList(Heap heap) throws IOException {
+    mapper.writeValue(JsonBenchmark.DISCARD, season.matches());
+    heap.peakRetainedBytes = peak();
+  }
+
+  @Benchmark
+  public void matchesNdjson(Heap heap) throws IOException {
+    JsonBenchmark.writeNdjson(mapper, season, JsonBenchmark.DISCARD);
+    heap.peakRetainedBytes = peak();
+  }
+
+  private long peak() {
+    return pools.stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum() - baseline;
+  }
+}
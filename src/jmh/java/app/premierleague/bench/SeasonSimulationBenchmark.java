@@ -0,0 +1,60 @@
+package app.premierleague.bench;
+
+import app.premierleague.service.RankingRules;
+import app.premierleague.service.SeasonSimulation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulated seasons per second for GET /predictions, on one core and on all of them. The table is the
+ * synthetic 380-match season with the last {@code remaining} fixtures still to play; each invocation runs
+ * SIMULATIONS seasons, so the reported ops/s is seasons/s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SeasonSimulationBenchmark {
+
+  static final int SIMULATIONS = 100_000;
+
+  @Param({"38", "190"})
+  int remaining;
+
+  SeasonSimulation sim;
+  ForkJoinPool single;
+  long seed;
+
+  @Setup
+  public void setup() {
+    var s = SyntheticSeason.of(380);
+    int played = s.size - remaining;
+    var so = new SeasonSimulation.Played(SyntheticSeason.TEAMS);
+    for (int i = 0; i < played; i++) so.result(s.home[i] - 1, s.away[i] - 1, s.homeGoals[i], s.awayGoals[i]);
+    int[] home = new int[remaining], away = new int[remaining];
+    for (int f = 0; f < remaining; f++) {
+      home[f] = s.home[played + f] - 1;
+      away[f] = s.away[played + f] - 1;
+    }
+    sim = SeasonSimulation.of(so, home, away, 1.15, RankingRules.PREMIER_LEAGUE);
+    single = new ForkJoinPool(1);
+  }
+
+  @TearDown
+  public void tearDown() {
+    single.shutdown();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIMULATIONS)
+  public long oneCore() {
+    return sim.run(SIMULATIONS, seed++, single).positionCounts()[0];
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(SIMULATIONS)
+  public long allCores() {
+    return sim.run(SIMULATIONS, seed++, ForkJoinPool.commonPool()).positionCounts()[0];
+  }
+}
@@ -0,0 +1,109 @@
+package app.premierleague.bench;
+
+import app.premierleague.ws.RecordResultResponse;
+import app.premierleague.ws.RecordResultsBatchRequest;
+import app.premierleague.ws.RecordResultsBatchResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Payload (un)marshalling cost of the SOAP endpoint, through the same Jaxb2Marshaller setup as WsConfig.
+ * Only the body element is measured; the envelope handling is left out.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SoapMarshallingBenchmark {
+
+  static final String NS = "http://pltracker.com/match";
+
+  Jaxb2Marshaller marshaller;
+  byte[] requestXml;
+  RecordResultResponse response;
+
+  @Setup
+  public void setup() throws Exception {
+    marshaller = marshaller();
+    requestXml = ("<m:recordResultRequest xmlns:m=\"" + NS + "\">"
+        + "<m:dbMatchId>4711</m:dbMatchId><m:homeScore>2</m:homeScore><m:awayScore>1</m:awayScore>"
+        + "</m:recordResultRequest>").getBytes(StandardCharsets.UTF_8);
+    response = new RecordResultResponse();
+    response.setUpdatedId(4711);
+    response.setStatus("FT");
+    response.setHomeScore(2);
+    response.setAwayScore(1);
+    response.setMessage("Result recorded");
+  }
+
+  static Jaxb2Marshaller marshaller() throws Exception {
+    var m = new Jaxb2Marshaller();
+    m.setContextPath("app.premierleague.ws");
+    m.afterPropertiesSet();
+    return m;
+  }
+
+  @Benchmark
+  public Object unmarshalRequest() {
+    return marshaller.unmarshal(new StreamSource(new ByteArrayInputStream(requestXml)));
+  }
+
+  @Benchmark
+  public int marshalResponse() {
+    var out = new ByteArrayOutputStream(256);
+    marshaller.marshal(response, new StreamResult(out));
+    return out.size();
+  }
+
+  @State(Scope.Benchmark)
+  public static class Batch {
+    @Param({"380", "10000", "100000"})
+    int matches;
+
+    byte[] requestXml;
+    RecordResultsBatchResponse response;
+
+    @Setup
+    public void setup() throws Exception {
+      var season = SyntheticSeason.of(matches);
+      var request = new RecordResultsBatchRequest();
+      response = new RecordResultsBatchResponse();
+      for (int i = 0; i < season.size; i++) {
+        var r = new RecordResultsBatchRequest.Result();
+        r.setDbMatchId(i + 1L);
+        r.setHomeScore(season.homeGoals[i]);
+        r.setAwayScore(season.awayGoals[i]);
+        request.getResult().add(r);
+
+        var item = new RecordResultsBatchResponse.Item();
+        item.setDbMatchId(i + 1L);
+        item.setOutcome("OK");
+        item.setStatus("FT");
+        item.setHomeScore(season.homeGoals[i]);
+        item.setAwayScore(season.awayGoals[i]);
+        response.getItem().add(item);
+      }
+      var out = new ByteArrayOutputStream(matches * 128);
+      marshaller().marshal(request, new StreamResult(out));
+      requestXml = out.toByteArray();
+    }
+  }
+
+  @Benchmark
+  public Object unmarshalBatchRequest(Batch b) {
+    return marshaller.unmarshal(new StreamSource(new ByteArrayInputStream(b.requestXml)));
+  }
+
+  @Benchmark
+  public int marshalBatchResponse(Batch b) {
+    var out = new ByteArrayOutputStream(b.requestXml.length * 2);
+    marshaller.marshal(b.response, new StreamResult(out));
+    return out.size();
+  }
+}
@@ -0,0 +1,51 @@
+package app.premierleague.bench;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Standings aggregation done in Java over primitive arrays; compare with StandingsSqlBenchmark, which
+ * runs the production CTE over the same synthetic rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StandingsBenchmark {
+
+  @Param({"380", "10000", "100000"})
+  int matches;
+
+  SyntheticSeason season;
+
+  @Setup
+  public void setup() {
+    season = SyntheticSeason.of(matches);
+  }
+
+  @Benchmark
+  public Integer[] javaAggregation() {
+    int n = SyntheticSeason.TEAMS + 1;
+    int[] won = new int[n], drawn = new int[n], gf = new int[n], ga = new int[n];
+    var s = season;
+    for (int i = 0; i < s.size; i++) {
+      if (!s.ft[i]) continue;
+      int h = s.home[i], a = s.away[i], hg = s.homeGoals[i], ag = s.awayGoals[i];
+      gf[h] += hg; ga[h] += ag;
+      gf[a] += ag; ga[a] += hg;
+      if (hg > ag) won[h]++;
+      else if (hg < ag) won[a]++;
+      else { drawn[h]++; drawn[a]++; }
+    }
+    Integer[] order = new Integer[n - 1];
+    for (int t = 1; t < n; t++) order[t - 1] = t;
+    Arrays.sort(order, (x, y) -> {
+      int c = Integer.compare(won[y] * 3 + drawn[y], won[x] * 3 + drawn[x]);
+      if (c == 0) c = Integer.compare(gf[y] - ga[y], gf[x] - ga[x]);
+      if (c == 0) c = Integer.compare(gf[y], gf[x]);
+      return c;
+    });
+    return order;
+  }
+}
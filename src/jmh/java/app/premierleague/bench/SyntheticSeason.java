@@ -0,0 +1,85 @@
+package app.premierleague.bench;
+
+import app.premierleague.domain.Match;
+import app.premierleague.domain.Standing;
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic fake history shared by the benchmarks: 20 teams, kickoffs two hours apart (the same
+ * shape as perf/seed_50k.sql), the first 90% of matches FT and the rest SCHEDULED.
+ */
+public final class SyntheticSeason {
+
+  public static final int TEAMS = 20;
+  private static final Instant START = Instant.parse("2014-08-01T12:00:00Z");
+
+  public final int size;
+  public final int[] home, away, homeGoals, awayGoals;
+  public final boolean[] ft;
+  public final long[] kickoff;
+
+  private SyntheticSeason(int size) {
+    this.size = size;
+    home = new int[size];
+    away = new int[size];
+    homeGoals = new int[size];
+    awayGoals = new int[size];
+    ft = new boolean[size];
+    kickoff = new long[size];
+  }
+
+  public static SyntheticSeason of(int size) {
+    var s = new SyntheticSeason(size);
+    var rnd = new SplittableRandom(42);
+    int played = size * 9 / 10;
+    for (int i = 0; i < size; i++) {
+      s.home[i] = 1 + (i % TEAMS);
+      s.away[i] = 1 + ((i % TEAMS) + 1 + (i / TEAMS) % (TEAMS - 1)) % TEAMS;
+      s.ft[i] = i < played;
+      s.homeGoals[i] = s.ft[i] ? rnd.nextInt(4) : 0;
+      s.awayGoals[i] = s.ft[i] ? rnd.nextInt(3) : 0;
+      s.kickoff[i] = START.getEpochSecond() + i * 7200L;
+    }
+    return s;
+  }
+
+  public Match match(int i) {
+    var m = new Match();
+    m.setId(i + 1L);
+    m.setSeasonId(1);
+    m.setHomeTeamId(home[i]);
+    m.setAwayTeamId(away[i]);
+    m.setKickoff(Instant.ofEpochSecond(kickoff[i]));
+    m.setHomeGoals(homeGoals[i]);
+    m.setAwayGoals(awayGoals[i]);
+    m.setStatus(ft[i] ? "FT" : "SCHEDULED");
+    return m;
+  }
+
+  public List<Match> matches() {
+    List<Match> out = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) out.add(match(i));
+    return out;
+  }
+
+  /** A plausible 20-row table; Standing has no setters, so it is filled through its fields. */
+  public static List<Standing> table() {
+    var fields = new ObjectMapper().setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY);
+    List<Standing> rows = new ArrayList<>(TEAMS);
+    for (int t = 0; t < TEAMS; t++) {
+      int won = 20 - t / 2, drawn = t % 5, lost = 38 - won - drawn, gf = 60 - t, ga = 30 + t;
+      rows.add(fields.convertValue(Map.of(
+          "teamId", t + 1, "played", 38, "won", won, "drawn", drawn, "lost", lost,
+          "gf", gf, "ga", ga, "gd", gf - ga, "points", won * 3 + drawn), Standing.class));
+    }
+    return rows;
+  }
+}
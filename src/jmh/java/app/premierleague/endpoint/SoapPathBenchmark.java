@@ -0,0 +1,91 @@
+package app.premierleague.endpoint;
+
+import app.premierleague.ws.RecordResultRequest;
+import app.premierleague.ws.RecordResultResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+import org.springframework.ws.WebServiceMessage;
+import org.springframework.ws.soap.saaj.SaajSoapMessageFactory;
+import org.springframework.ws.support.MarshallingUtils;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.SchemaFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requests per second per core for one recordResultRequest, envelope in to envelope out, with the endpoint
+ * stubbed out. wsConfig is what Spring-WS does for /ws (SAAJ message factory, Jaxb2Marshaller via
+ * MarshallingUtils); the fast* variants are StaxSoapCodec as used by /ws-fast, with and without schema
+ * validation. Run single-threaded, so ops/s is the per-core figure.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SoapPathBenchmark {
+
+  static final String NS = "http://pltracker.com/match";
+
+  SaajSoapMessageFactory saaj;
+  Jaxb2Marshaller marshaller;
+  StaxSoapCodec codec;
+  byte[] envelope;
+
+  @Setup
+  public void setup() throws Exception {
+    saaj = new SaajSoapMessageFactory();
+    saaj.afterPropertiesSet();
+    marshaller = new Jaxb2Marshaller();
+    marshaller.setContextPath("app.premierleague.ws");
+    marshaller.afterPropertiesSet();
+    var schema = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI)
+        .newSchema(new StreamSource(new ClassPathResource("matches.xsd").getInputStream()));
+    codec = new StaxSoapCodec(marshaller.getJaxbContext(), schema, 4);
+    envelope = ("<SOAP-ENV:Envelope xmlns:SOAP-ENV=\"" + StaxSoapCodec.ENV_NS + "\"><SOAP-ENV:Header/>"
+        + "<SOAP-ENV:Body><m:recordResultRequest xmlns:m=\"" + NS + "\">"
+        + "<m:dbMatchId>4711</m:dbMatchId><m:homeScore>2</m:homeScore><m:awayScore>1</m:awayScore>"
+        + "</m:recordResultRequest></SOAP-ENV:Body></SOAP-ENV:Envelope>").getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public int wsConfig() throws Exception {
+    WebServiceMessage request = saaj.createWebServiceMessage(new ByteArrayInputStream(envelope));
+    var req = (RecordResultRequest) MarshallingUtils.unmarshal(marshaller, request);
+    WebServiceMessage response = saaj.createWebServiceMessage();
+    MarshallingUtils.marshal(marshaller, respond(req), response);
+    var out = new ByteArrayOutputStream(512);
+    response.writeTo(out);
+    return out.size();
+  }
+
+  @Benchmark
+  public int fastValidated() {
+    return fast(true);
+  }
+
+  @Benchmark
+  public int fastTrusted() {
+    return fast(false);
+  }
+
+  private int fast(boolean validate) {
+    var req = (RecordResultRequest) codec.read(new ByteArrayInputStream(envelope), validate);
+    var out = new ByteArrayOutputStream(512);
+    codec.write(respond(req), out);
+    return out.size();
+  }
+
+  private static RecordResultResponse respond(RecordResultRequest req) {
+    var resp = new RecordResultResponse();
+    resp.setUpdatedId(req.getDbMatchId());
+    resp.setStatus("FT");
+    resp.setHomeScore(req.getHomeScore());
+    resp.setAwayScore(req.getAwayScore());
+    resp.setMessage("OK");
+    return resp;
+  }
+}
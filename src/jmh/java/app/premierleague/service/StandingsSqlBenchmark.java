@@ -0,0 +1,80 @@
+package app.premierleague.service;
+
+import app.premierleague.bench.SyntheticSeason;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.postgresql.PGConnection;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StandingsEngine's full-aggregation CTE against the docker-compose Postgres
+ * (override with -Dbench.jdbcUrl / -Dbench.user / -Dbench.password).
+ *
+ * The synthetic rows go into session temp tables named teams and matches. Temp tables come first on
+ * the search_path, so the production SQL runs unchanged without touching the real tables.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StandingsSqlBenchmark {
+
+  @Param({"380", "10000", "100000"})
+  int matches;
+
+  Connection con;
+
+  @Setup
+  public void setup() throws SQLException, java.io.IOException {
+    con = DriverManager.getConnection(
+        System.getProperty("bench.jdbcUrl", "jdbc:postgresql://localhost:5432/pl_tracker"),
+        System.getProperty("bench.user", "pl_user"),
+        System.getProperty("bench.password", "pl_pass"));
+    try (Statement st = con.createStatement()) {
+      st.execute("CREATE TEMP TABLE teams (id INT PRIMARY KEY)");
+      st.execute("INSERT INTO teams SELECT generate_series(1, " + SyntheticSeason.TEAMS + ")");
+      st.execute("""
+          CREATE TEMP TABLE matches (
+            season_id INT NOT NULL DEFAULT 1, home_team_id INT NOT NULL, away_team_id INT NOT NULL,
+            home_goals INT NOT NULL, away_goals INT NOT NULL, status VARCHAR(20) NOT NULL)
+          """);
+    }
+    var season = SyntheticSeason.of(matches);
+    var csv = new StringBuilder(matches * 16);
+    for (int i = 0; i < season.size; i++) {
+      csv.append(season.home[i]).append(',').append(season.away[i]).append(',')
+          .append(season.homeGoals[i]).append(',').append(season.awayGoals[i]).append(',')
+          .append(season.ft[i] ? "FT" : "SCHEDULED").append('\n');
+    }
+    con.unwrap(PGConnection.class).getCopyAPI()
+        .copyIn("COPY matches (home_team_id, away_team_id, home_goals, away_goals, status) FROM STDIN WITH (FORMAT csv)", new StringReader(csv.toString()));
+    try (Statement st = con.createStatement()) {
+      st.execute("ANALYZE teams");
+      st.execute("ANALYZE matches");
+    }
+  }
+
+  @TearDown
+  public void tearDown() throws SQLException {
+    con.close();
+  }
+
+  @Benchmark
+  public void sqlCte(Blackhole bh) throws SQLException {
+    try (PreparedStatement ps = con.prepareStatement(StandingsEngine.EXPECTED_CTE
+        + "SELECT * FROM expected ORDER BY points DESC, gd DESC, gf DESC")) {
+      ps.setInt(1, 1);
+      ps.setInt(2, 1);
+      try (ResultSet rs = ps.executeQuery()) {
+        while (rs.next()) bh.consume(rs.getInt("points"));
+      }
+    }
+  }
+}
@@ -0,0 +1,64 @@
+package app.premierleague;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * What a GraalVM native image cannot see on its own: types reached only by reflection, and resources loaded by
+ * name. Spring's AOT pass covers beans, controller payloads and JPA entities; this adds
+ * <ul>
+ *   <li>the xjc-generated {@code app.premierleague.ws} classes, which JAXB binds reflectively;</li>
+ *   <li>entities and service records that are serialized with an ObjectMapper by hand (the pre-built table,
+ *   view and forecast payloads, SSE events), which Spring cannot infer from a handler signature;</li>
+ *   <li>cache providers that Hibernate and JCache instantiate from a class name in application.yml;</li>
+ *   <li>the schema, seed, XSD and Caffeine config files.</li>
+ * </ul>
+ * The native CLI reuses it through {@link app.premierleague.cli.CliNativeConfig}.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+  @Override
+  public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+    for (Class<?> type : typesIn("app.premierleague.ws", classLoader)) {
+      hints.reflection().registerType(type, MemberCategory.values());
+    }
+    var binding = new BindingReflectionHintsRegistrar();
+    for (Class<?> type : typesIn("app.premierleague.domain", classLoader)) {
+      binding.registerReflectionHints(hints.reflection(), type);
+    }
+    for (Class<?> type : typesIn("app.premierleague.service", classLoader)) {
+      if (type.isRecord()) binding.registerReflectionHints(hints.reflection(), type);
+    }
+    for (String name : List.of("com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+        "org.hibernate.cache.jcache.internal.JCacheRegionFactory")) {
+      hints.reflection().registerTypeIfPresent(classLoader, name, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+    }
+    hints.resources()
+        .registerPattern("*.sql")
+        .registerPattern("matches.xsd")
+        .registerPattern("application.conf");
+  }
+
+  // every class in the package, nested ones included; runs at build time, so scanning costs the image nothing
+  static List<Class<?>> typesIn(String pkg, ClassLoader classLoader) {
+    var scanner = new ClassPathScanningCandidateComponentProvider(false) {
+      @Override
+      protected boolean isCandidateComponent(AnnotatedBeanDefinition definition) {
+        return true;
+      }
+    };
+    scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+    scanner.addIncludeFilter((reader, factory) -> true);
+    return scanner.findCandidateComponents(pkg).stream()
+        .<Class<?>>map(bd -> ClassUtils.resolveClassName(bd.getBeanClassName(), classLoader))
+        .toList();
+  }
+}
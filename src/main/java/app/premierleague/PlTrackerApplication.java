@@ -2,8 +2,10 @@ package app.premierleague;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeHints.class)
 public class PlTrackerApplication {
     public static void main(String[] args) {
         SpringApplication.run(PlTrackerApplication.class, args);
@@ -0,0 +1,34 @@
+package app.premierleague.cli;
+
+import app.premierleague.NativeHints;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.nativex.FileNativeConfigurationWriter;
+import org.springframework.core.io.support.SpringFactoriesLoader;
+
+import java.nio.file.Path;
+
+/**
+ * Writes GraalVM reachability metadata for the native SubmitResultCli; ./gradlew nativeCliCompile runs it first.
+ *
+ * The CLI is not a Spring application, so Spring's AOT pass never sees it. Instead this applies the hints the
+ * service image gets ({@link NativeHints}) plus the registrars the Spring jars on the classpath ship in
+ * META-INF/spring/aot.factories, which cover Jaxb2Marshaller, SAAJ and the rest of Spring-WS's client side.
+ *
+ *   java app.premierleague.cli.CliNativeConfig build/generated/cli-native
+ */
+public class CliNativeConfig {
+
+  public static void main(String[] args) {
+    Path out = Path.of(args.length > 0 ? args[0] : "build/generated/cli-native");
+    ClassLoader classLoader = CliNativeConfig.class.getClassLoader();
+    var hints = new RuntimeHints();
+    new NativeHints().registerHints(hints, classLoader);
+    for (var registrar : SpringFactoriesLoader.forResourceLocation("META-INF/spring/aot.factories", classLoader)
+        .load(RuntimeHintsRegistrar.class)) {
+      registrar.registerHints(hints, classLoader);
+    }
+    new FileNativeConfigurationWriter(out, "app.premierleague", "pl-cli").write(hints);
+    System.out.println("Native image metadata for the CLI written to " + out.toAbsolutePath());
+  }
+}
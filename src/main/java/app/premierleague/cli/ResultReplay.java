@@ -0,0 +1,271 @@
+package app.premierleague.cli;
+
+import app.premierleague.ws.RecordResultByTeamsRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.springframework.ws.client.core.WebServiceTemplate;
+
+import java.io.BufferedReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * -Daction=replay: sends a file of fixtures, results and owner changes, one JSON object per line:
+ *
+ *   {"type":"fixture","home":"Arsenal","away":"Chelsea","kickoff":"2025-08-16T14:00:00Z","venue":"..."}
+ *   {"type":"result","matchId":42,"homeGoals":2,"awayGoals":1}
+ *   {"type":"result","home":"Arsenal","away":"Chelsea","homeGoals":2,"awayGoals":1}
+ *   {"type":"owner","team":"Arsenal","owner":"..."}
+ *
+ * Teams may be given by id or by name. Everything goes over the one shared HttpClient, which talks HTTP/2 when
+ * the server offers it, so up to {@code concurrency} requests are in flight as streams on one connection.
+ * Results by match id are grouped into POST /matches/results:batch calls of up to {@code batch} items. Results
+ * by teams go over SOAP through the same client.
+ *
+ * Requests run concurrently only within a run of lines of the same type. The replay waits for everything in
+ * flight before a line of another type, or one that touches the same match or team again, so fixtures exist
+ * before their results and a corrected score lands after the original.
+ *
+ * Result writes carry an Idempotency-Key made of the file name and line number, so replaying a file again after
+ * a partial run does not apply a result twice as long as the server still remembers the keys.
+ */
+final class ResultReplay {
+
+  private final HttpClient http;
+  private final WebServiceTemplate ws;
+  private final String teamsUrl;
+  private final String matchesUrl;
+  private final Map<String, Integer> teamIds;
+  private final int batch;
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  private final Semaphore inFlight;
+  private final ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor();
+  private final List<Future<?>> pending = new ArrayList<>();
+  private final Set<String> pendingKeys = new HashSet<>();
+  private String pendingType;
+  private String keyPrefix;
+  private final ArrayNode results;
+  private long resultsFirstLine;
+
+  private final ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+  private final ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger okItems = new AtomicInteger();
+  private final AtomicInteger failedItems = new AtomicInteger();
+
+  ResultReplay(HttpClient http, WebServiceTemplate ws, String teamsUrl, String matchesUrl,
+               Map<String, Integer> teamIds, int concurrency, int batch) {
+    if (concurrency < 1) throw new IllegalArgumentException("concurrency must be >= 1");
+    if (batch < 1) throw new IllegalArgumentException("batch must be >= 1");
+    this.http = http;
+    this.ws = ws;
+    this.teamsUrl = teamsUrl;
+    this.matchesUrl = matchesUrl;
+    this.teamIds = teamIds;
+    this.batch = batch;
+    this.inFlight = new Semaphore(concurrency);
+    this.results = mapper.createArrayNode();
+  }
+
+  void run(Path file) throws Exception {
+    long lines = 0;
+    long t0 = System.nanoTime();
+    keyPrefix = "replay:" + file.getFileName() + ":";
+    try (BufferedReader in = Files.newBufferedReader(file)) {
+      String line;
+      while ((line = in.readLine()) != null) {
+        lines++;
+        if (line.isBlank()) continue;
+        try {
+          submit(lines, mapper.readTree(line));
+        } catch (Exception e) {
+          failedItems.incrementAndGet();
+          failures.add("line " + lines + ": " + e.getMessage());
+        }
+      }
+      flushResults();
+      barrier();
+    } finally {
+      workers.shutdown();
+    }
+    report(file, System.nanoTime() - t0);
+  }
+
+  private void submit(long lineNo, JsonNode n) throws Exception {
+    String type = n.path("type").asText();
+    switch (type) {
+      case "fixture" -> {
+        int home = team(n.path("home")), away = team(n.path("away"));
+        var body = mapper.createObjectNode()
+            .put("homeTeamId", home)
+            .put("awayTeamId", away)
+            .put("kickoff", OffsetDateTime.parse(n.path("kickoff").asText()).toInstant().toString());
+        if (n.hasNonNull("venue")) body.put("venue", n.get("venue").asText());
+        send(lineNo, type, "t" + home + "-" + away, () -> {
+          check(http("POST", matchesUrl, body, null));
+          return 1;
+        });
+      }
+      case "owner" -> {
+        int team = team(n.path("team"));
+        var body = mapper.createObjectNode().put("owner", n.path("owner").asText());
+        send(lineNo, type, "t" + team, () -> {
+          check(http("PATCH", teamsUrl + "/" + team + "/owner", body, null));
+          return 1;
+        });
+      }
+      case "result" -> {
+        if (n.has("matchId")) {
+          long matchId = n.get("matchId").asLong();
+          if (!"result".equals(pendingType) || pendingKeys.contains("m" + matchId)) flushResults();
+          begin(type, "m" + matchId);
+          if (results.isEmpty()) resultsFirstLine = lineNo;
+          results.addObject().put("matchId", matchId)
+              .put("homeGoals", goals(n, "homeGoals"))
+              .put("awayGoals", goals(n, "awayGoals"));
+          if (results.size() >= batch) flushResults();
+        } else {
+          var req = new RecordResultByTeamsRequest();
+          req.setHomeTeamId(team(n.path("home")));
+          req.setAwayTeamId(team(n.path("away")));
+          req.setHomeScore(goals(n, "homeGoals"));
+          req.setAwayScore(goals(n, "awayGoals"));
+          req.setIdempotencyKey(keyPrefix + lineNo);
+          send(lineNo, type, "t" + req.getHomeTeamId() + "-" + req.getAwayTeamId(), () -> {
+            ws.marshalSendAndReceive(req);
+            return 1;
+          });
+        }
+      }
+      default -> throw new IllegalArgumentException("Unknown type: " + type + " (use fixture, result or owner)");
+    }
+  }
+
+  // One call; returns how many items it carried that succeeded and fails on a non-2xx or SOAP fault.
+  private interface Call {
+    int send() throws Exception;
+  }
+
+  private void send(long lineNo, String type, String key, Call call) throws InterruptedException {
+    if (!type.equals(pendingType)) flushResults();
+    begin(type, key);
+    dispatch(lineNo, 1, call);
+  }
+
+  // starts a new concurrent run when the type changes or the key is already in flight
+  private void begin(String type, String key) throws InterruptedException {
+    if (!type.equals(pendingType) || pendingKeys.contains(key)) barrier();
+    pendingType = type;
+    pendingKeys.add(key);
+  }
+
+  private void flushResults() throws InterruptedException {
+    if (results.isEmpty()) return;
+    var body = results.deepCopy();
+    results.removeAll();
+    String key = keyPrefix + resultsFirstLine + "+" + body.size();
+    dispatch(resultsFirstLine, body.size(), () -> {
+      JsonNode outcomes = mapper.readTree(check(http("POST", matchesUrl + "/results:batch", body, key)));
+      int ok = 0;
+      for (JsonNode o : outcomes) {
+        if ("OK".equals(o.path("outcome").asText())) ok++;
+        else failures.add("match " + o.path("matchId").asLong() + ": " + o.path("message").asText());
+      }
+      return ok;
+    });
+  }
+
+  private void dispatch(long lineNo, int items, Call call) throws InterruptedException {
+    inFlight.acquire();
+    pending.add(workers.submit(() -> {
+      long t = System.nanoTime();
+      try {
+        int ok = call.send();
+        okItems.addAndGet(ok);
+        failedItems.addAndGet(items - ok);
+      } catch (Exception e) {
+        failedItems.addAndGet(items);
+        failures.add("line " + lineNo + ": " + e.getMessage());
+      } finally {
+        latencies.add(System.nanoTime() - t);
+        inFlight.release();
+      }
+    }));
+  }
+
+  private void barrier() {
+    for (Future<?> f : pending) {
+      try {
+        f.get();
+      } catch (Exception ignored) {
+        // failures are recorded by the task itself
+      }
+    }
+    pending.clear();
+    pendingKeys.clear();
+  }
+
+  private HttpResponse<String> http(String method, String url, JsonNode body, String idempotencyKey) throws Exception {
+    var req = HttpRequest.newBuilder(URI.create(url))
+        .header("Content-Type", "application/json")
+        .method(method, HttpRequest.BodyPublishers.ofString(mapper.writeValueAsString(body)));
+    if (idempotencyKey != null) req.header("Idempotency-Key", idempotencyKey);
+    return http.send(req.build(), HttpResponse.BodyHandlers.ofString());
+  }
+
+  private static String check(HttpResponse<String> res) {
+    if (res.statusCode() >= 300) {
+      throw new IllegalStateException(res.request().method() + " " + res.uri() + " failed " + res.statusCode() + ": " + res.body());
+    }
+    return res.body();
+  }
+
+  private int team(JsonNode ref) {
+    if (ref.isInt()) return ref.asInt();
+    Integer id = teamIds.get(ref.asText());
+    if (id == null) throw new IllegalArgumentException("Unknown team: " + ref.asText());
+    return id;
+  }
+
+  private static int goals(JsonNode n, String field) {
+    JsonNode v = n.get(field);
+    if (v == null || !v.canConvertToInt() || v.asInt() < 0) throw new IllegalArgumentException("Invalid " + field);
+    return v.asInt();
+  }
+
+  private void report(Path file, long elapsedNanos) {
+    long[] ns = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+    double secs = elapsedNanos / 1e9;
+    System.out.printf("Replayed %s: %d ok, %d failed in %.2f s%n", file, okItems.get(), failedItems.get(), secs);
+    System.out.printf("  %d requests, %.0f req/s, %.0f items/s%n",
+        ns.length, ns.length / secs, (okItems.get() + failedItems.get()) / secs);
+    if (ns.length > 0) {
+      System.out.printf("  latency ms: p50 %.1f  p95 %.1f  p99 %.1f  max %.1f%n",
+          pct(ns, 0.50), pct(ns, 0.95), pct(ns, 0.99), ns[ns.length - 1] / 1e6);
+    }
+    failures.stream().limit(20).forEach(f -> System.err.println("  " + f));
+    if (failures.size() > 20) System.err.println("  ... " + (failures.size() - 20) + " more");
+  }
+
+  private static double pct(long[] sorted, double p) {
+    int i = (int) Math.ceil(p * sorted.length) - 1;
+    return sorted[Math.max(0, Math.min(i, sorted.length - 1))] / 1e6;
+  }
+}
@@ -0,0 +1,46 @@
+package app.premierleague.cli;
+
+import app.premierleague.service.ColumnarSnapshot;
+
+import java.nio.file.Path;
+import java.util.TreeMap;
+
+/**
+ * Offline pass over a snapshot written by POST /admin/snapshot; no database needed. Prints per-season result
+ * splits and goal rates straight from the mapped columns.
+ *
+ *   ./gradlew scanSnapshot [-Pfile=data/pl-snapshot.bin]
+ */
+public class SnapshotScan {
+
+  public static void main(String[] args) throws Exception {
+    Path file = Path.of(args.length > 0 ? args[0] : System.getProperty("file", "data/pl-snapshot.bin"));
+    long t0 = System.nanoTime();
+    var snap = ColumnarSnapshot.open(file);
+    var m = snap.matches();
+
+    // season -> {matches, played, home wins, draws, away wins, home goals, away goals}
+    var bySeason = new TreeMap<Integer, long[]>();
+    for (int r = 0; r < m.size(); r++) {
+      long[] s = bySeason.computeIfAbsent(m.seasonId(r), id -> new long[7]);
+      s[0]++;
+      if (m.statusCode(r) != ColumnarSnapshot.FT) continue;
+      int hg = m.homeGoals(r), ag = m.awayGoals(r);
+      s[1]++;
+      s[hg > ag ? 2 : hg == ag ? 3 : 4]++;
+      s[5] += hg;
+      s[6] += ag;
+    }
+    long scanNanos = System.nanoTime() - t0;
+
+    System.out.printf("%s: %d matches, %d standings rows, written %s%n",
+        file, m.size(), snap.standings().size(), snap.writtenAt());
+    System.out.printf("%-8s %8s %8s %7s %7s %7s %9s%n", "season", "matches", "played", "home%", "draw%", "away%", "goals/m");
+    bySeason.forEach((season, s) -> {
+      double played = Math.max(s[1], 1);
+      System.out.printf("%-8d %8d %8d %7.1f %7.1f %7.1f %9.2f%n", season, s[0], s[1],
+          100 * s[2] / played, 100 * s[3] / played, 100 * s[4] / played, (s[5] + s[6]) / played);
+    });
+    System.out.printf("open + scan: %.2f ms%n", scanNanos / 1e6);
+  }
+}
@@ -2,8 +2,11 @@ package app.premierleague.cli;
 
 import app.premierleague.ws.RecordResultByTeamsRequest;
 import app.premierleague.ws.RecordResultByTeamsResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.oxm.jaxb.Jaxb2Marshaller;
 import org.springframework.ws.client.core.WebServiceTemplate;
+import org.springframework.ws.transport.http.JdkHttpClientMessageSender;
 
 import java.io.BufferedReader;
 import java.io.InputStreamReader;
@@ -11,14 +14,26 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 public class SubmitResultCli {
 
+  // Shared by every request, so a replay reuses one connection (HTTP/2 when the server offers it)
+  private static final HttpClient HTTP = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_2)
+      .connectTimeout(Duration.ofSeconds(10))
+      .build();
+
   public static void main(String[] args) throws Exception {
     String endpoint    = System.getProperty("endpoint",   "http://localhost:8080/ws");
     String teamsUrl    = System.getProperty("teamsUrl",   "http://localhost:8080/teams");
@@ -60,6 +75,20 @@ public class SubmitResultCli {
           if (!res.isBlank()) System.out.println("Response: " + res);
           return;
         }
+        case "importfixtures" -> {
+          Path file = Path.of(reqProp("file"));
+          Path errors = Path.of(System.getProperty("errors", file + ".errors.csv"));
+          importFixtures(matchesUrl + "/import", file, errors);
+          return;
+        }
+        case "replay" -> {
+          Path file = Path.of(reqProp("file"));
+          var teamIds = teamIdsByName(fetchTeams(teamsUrl));
+          new ResultReplay(HTTP, webServiceTemplate(endpoint), teamsUrl, matchesUrl, teamIds,
+              Integer.parseInt(System.getProperty("concurrency", "16")),
+              Integer.parseInt(System.getProperty("batch", "100"))).run(file);
+          return;
+        }
         case "wizard" -> runWizard(teamsUrl, matchesUrl);
         default -> {
           System.err.println("Unknown -Daction: " + action);
@@ -80,8 +109,12 @@ public class SubmitResultCli {
     System.out.println("Matches API : " + matchesUrl);
 
     // Load teams
-    var teamIds = fetchTeamMap(teamsUrl);
-    var teamOwners = fetchTeamOwners(teamsUrl);
+    var teams = fetchTeams(teamsUrl);
+    var teamIds = teamIdsByName(teams);
+    Map<Integer,String> teamOwners = new HashMap<>();
+    teams.forEach(t -> teamOwners.put(t.id(), t.owner()));
+    System.out.println("Available teams:");
+    teamIds.keySet().forEach(n -> System.out.println(" - " + n));
     System.out.println("Loaded " + teamIds.size() + " teams.");
 
     // Pick teams by name
@@ -118,6 +151,35 @@ public class SubmitResultCli {
     if (!patchRes.isBlank()) System.out.println("Response: " + patchRes);
   }
 
+  // Streams the file in one request; rejected rows are written as line,reason to the errors file.
+  private static void importFixtures(String url, Path file, Path errorsFile) throws Exception {
+    String name = file.getFileName().toString().toLowerCase();
+    String contentType = name.endsWith(".ndjson") || name.endsWith(".jsonl") ? "application/x-ndjson" : "text/csv";
+
+    var req = HttpRequest.newBuilder(URI.create(url))
+        .header("Content-Type", contentType)
+        .POST(HttpRequest.BodyPublishers.ofFile(file))
+        .build();
+    long t0 = System.nanoTime();
+    var res = HTTP.send(req, HttpResponse.BodyHandlers.ofString());
+    long ms = (System.nanoTime() - t0) / 1_000_000;
+    if (res.statusCode() >= 300) throw new IllegalStateException("POST " + url + " failed " + res.statusCode() + ": " + res.body());
+
+    JsonNode report = new ObjectMapper().readTree(res.body());
+    JsonNode errors = report.path("errors");
+    System.out.println("Imported " + report.path("inserted").asInt() + " of " + report.path("received").asInt()
+        + " fixtures from " + file + " in " + ms + " ms");
+    if (errors.isEmpty()) return;
+
+    try (var out = Files.newBufferedWriter(errorsFile)) {
+      out.write("line,reason\n");
+      for (JsonNode e : errors) {
+        out.write(e.path("line").asLong() + ",\"" + e.path("reason").asText().replace("\"", "\"\"") + "\"\n");
+      }
+    }
+    System.out.println(errors.size() + " rejected row(s) written to " + errorsFile);
+  }
+
   private static int askNonNegativeInt(BufferedReader in, String label) throws Exception {
     while (true) {
       System.out.print(label + ": ");
@@ -154,71 +216,25 @@ public class SubmitResultCli {
     }
   }
 
-  private static Map<String,Integer> fetchTeamMap(String url) throws Exception {
-    String body = httpGet(url);
-    Map<String,Integer> map = new LinkedHashMap<>();
-    String arr = body.trim();
-    if (!arr.startsWith("[")) throw new IllegalStateException("Unexpected payload (not an array) from " + url);
-    String inner = arr.substring(1, arr.length()-1).trim();
-    if (!inner.isEmpty()) {
-      for (String item : inner.split("\\},\\s*\\{")) {
-        String obj = item.replace("{","").replace("}","");
-        Integer id = null; String name = null;
-        for (String kv : obj.split(",\\s*\"")) {
-          String s = kv.trim();
-          if (!s.startsWith("\"")) s = "\"" + s;
-          int colon = s.indexOf(':'); if (colon < 0) continue;
-          String key = s.substring(1, colon).replace("\"","").trim();
-          String val = s.substring(colon + 1).trim();
-          if ("id".equals(key)) {
-            val = val.replaceAll("[^0-9-]", "");
-            if (!val.isEmpty()) id = Integer.valueOf(val);
-          } else if ("name".equals(key)) {
-            if (val.startsWith("\"")) val = val.substring(1);
-            if (val.endsWith("\"")) val = val.substring(0, val.length()-1);
-            name = val;
-          }
-        }
-        if (id != null && name != null && !name.isBlank()) map.put(name, id);
-      }
+  private record Team(int id, String name, String owner) {}
+
+  // One GET /teams serves both the name lookup and the owner check
+  private static List<Team> fetchTeams(String url) throws Exception {
+    JsonNode arr = new ObjectMapper().readTree(httpGet(url));
+    if (!arr.isArray()) throw new IllegalStateException("Unexpected payload (not an array) from " + url);
+    List<Team> teams = new ArrayList<>();
+    for (JsonNode t : arr) {
+      JsonNode owner = t.get("owner");
+      teams.add(new Team(t.path("id").asInt(), t.path("name").asText(),
+          owner == null || owner.isNull() ? null : owner.asText()));
     }
-    if (map.isEmpty()) throw new IllegalStateException("Parsed empty team list from " + url);
-    System.out.println("Available teams:");
-    map.keySet().forEach(n -> System.out.println(" - " + n));
-    return map;
+    if (teams.isEmpty()) throw new IllegalStateException("Parsed empty team list from " + url);
+    return teams;
   }
 
-  private static Map<Integer,String> fetchTeamOwners(String url) throws Exception {
-    String body = httpGet(url);
-    Map<Integer,String> map = new LinkedHashMap<>();
-    String arr = body.trim();
-    if (!arr.startsWith("[")) throw new IllegalStateException("Unexpected payload (not an array) from " + url);
-    String inner = arr.substring(1, arr.length()-1).trim();
-    if (!inner.isEmpty()) {
-      for (String item : inner.split("\\},\\s*\\{")) {
-        String obj = item.replace("{","").replace("}","");
-        Integer id = null; String owner = null;
-        for (String kv : obj.split(",\\s*\"")) {
-          String s = kv.trim();
-          if (!s.startsWith("\"")) s = "\"" + s;
-          int colon = s.indexOf(':'); if (colon < 0) continue;
-          String key = s.substring(1, colon).replace("\"","").trim();
-          String val = s.substring(colon + 1).trim();
-          if ("id".equals(key)) {
-            val = val.replaceAll("[^0-9-]", "");
-            if (!val.isEmpty()) id = Integer.valueOf(val);
-          } else if ("owner".equals(key)) {
-            if (val.equals("null")) owner = null;
-            else {
-              if (val.startsWith("\"")) val = val.substring(1);
-              if (val.endsWith("\"")) val = val.substring(0, val.length()-1);
-              owner = val;
-            }
-          }
-        }
-        if (id != null) map.put(id, owner);
-      }
-    }
+  private static Map<String,Integer> teamIdsByName(List<Team> teams) {
+    Map<String,Integer> map = new LinkedHashMap<>();
+    teams.forEach(t -> map.put(t.name(), t.id()));
     return map;
   }
 
@@ -254,31 +270,28 @@ public class SubmitResultCli {
   }
 
   private static String httpGet(String url) throws Exception {
-    var http = HttpClient.newHttpClient();
     var req = HttpRequest.newBuilder(URI.create(url)).GET().build();
-    var res = http.send(req, HttpResponse.BodyHandlers.ofString());
+    var res = HTTP.send(req, HttpResponse.BodyHandlers.ofString());
     if (res.statusCode() >= 300) throw new IllegalStateException("GET " + url + " failed " + res.statusCode() + ": " + res.body());
     return res.body();
   }
 
   private static String httpPostJson(String url, String json) throws Exception {
-    var http = HttpClient.newHttpClient();
     var req = HttpRequest.newBuilder(URI.create(url))
         .header("Content-Type", "application/json")
         .POST(HttpRequest.BodyPublishers.ofString(json))
         .build();
-    var res = http.send(req, HttpResponse.BodyHandlers.ofString());
+    var res = HTTP.send(req, HttpResponse.BodyHandlers.ofString());
     if (res.statusCode() >= 300) throw new IllegalStateException("POST " + url + " failed " + res.statusCode() + ": " + res.body());
     return res.body();
   }
 
   private static String httpPatchJson(String url, String json) throws Exception {
-    var http = HttpClient.newHttpClient();
     var req = HttpRequest.newBuilder(URI.create(url))
         .header("Content-Type", "application/json")
         .method("PATCH", HttpRequest.BodyPublishers.ofString(json))
         .build();
-    var res = http.send(req, HttpResponse.BodyHandlers.ofString());
+    var res = HTTP.send(req, HttpResponse.BodyHandlers.ofString());
     if (res.statusCode() >= 300) throw new IllegalStateException("PATCH " + url + " failed " + res.statusCode() + ": " + res.body());
     return res.body();
   }
@@ -332,9 +345,23 @@ public class SubmitResultCli {
         -Daction=addMatch     -Dhome=<id> -Daway=<id> -Dkickoff=2025-08-09T15:00:00Z
         -Daction=submitResult -DmatchId=<id> -Dhome=<n> -Daway=<n>
         -Daction=addOwner     -Dteam=<id> -Downer="<name>"
+        -Daction=importFixtures -Dfile=season.csv [-Derrors=season.csv.errors.csv]
+            (CSV: home_team_id,away_team_id,kickoff[,venue]; .ndjson/.jsonl: one fixture object per line)
+        -Daction=replay -Dfile=day.ndjson [-Dconcurrency=16] [-Dbatch=100] [-Dendpoint=http://localhost:8080/ws-fast]
+            (one {"type":"fixture"|"result"|"owner",...} object per line; see ResultReplay)
       """);
   }
 
+  private static WebServiceTemplate webServiceTemplate(String endpoint) throws Exception {
+    var marshaller = new Jaxb2Marshaller();
+    marshaller.setContextPath("app.premierleague.ws");
+    marshaller.afterPropertiesSet();
+    var ws = new WebServiceTemplate(marshaller);
+    ws.setMessageSender(new JdkHttpClientMessageSender(HTTP));
+    ws.setDefaultUri(endpoint);
+    return ws;
+  }
+
   private static void callByTeams(WebServiceTemplate ws, int homeId, int awayId, int home, int away) {
     RecordResultByTeamsRequest req = new RecordResultByTeamsRequest();
     req.setHomeTeamId(homeId);
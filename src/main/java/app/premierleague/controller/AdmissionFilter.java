@@ -0,0 +1,91 @@
+package app.premierleague.controller;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Caps in-flight requests (REST and /ws) when requests run on virtual threads.
+ *
+ * Without a cap, a spike turns into tens of thousands of virtual threads queued on a 32-connection
+ * Hikari pool, and all of them time out together. With one, the overflow waits briefly at the door and
+ * then gets a fast 503. /stream is exempt because SSE subscribers hold their request open indefinitely, and
+ * /actuator so metrics scrapes and health checks still answer while the app is saturated. Async requests keep
+ * their permit until the async work completes, times out or fails, not just until the servlet thread returns.
+ */
+@Component
+@ConditionalOnProperty(name = "pl.admission.max-concurrent")
+public class AdmissionFilter extends OncePerRequestFilter {
+
+  private final Semaphore permits;
+  private final long waitMillis;
+
+  public AdmissionFilter(@Value("${pl.admission.max-concurrent}") int maxConcurrent,
+                         @Value("${pl.admission.wait-ms:1000}") long waitMillis) {
+    this.permits = new Semaphore(maxConcurrent, true);
+    this.waitMillis = waitMillis;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    // servlet path, so the exemptions hold under a context path too
+    String path = request.getServletPath();
+    return path.startsWith("/stream") || path.startsWith("/actuator");
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    boolean admitted;
+    try {
+      admitted = permits.tryAcquire(waitMillis, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      admitted = false;
+    }
+    if (!admitted) {
+      response.setHeader("Retry-After", "1");
+      response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many concurrent requests");
+      return;
+    }
+    var release = new AtomicBoolean();
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      // an async request (the /events long-poll, NDJSON streams) is still working; hold the permit until it ends
+      if (!request.isAsyncStarted() || !releaseWhenDone(request, release)) releaseOnce(release);
+    }
+  }
+
+  private boolean releaseWhenDone(HttpServletRequest request, AtomicBoolean release) {
+    try {
+      request.getAsyncContext().addListener(new AsyncListener() {
+        @Override public void onComplete(AsyncEvent e) { releaseOnce(release); }
+        @Override public void onTimeout(AsyncEvent e) { releaseOnce(release); }
+        @Override public void onError(AsyncEvent e) { releaseOnce(release); }
+        @Override public void onStartAsync(AsyncEvent e) {}
+      });
+      return true;
+    } catch (IllegalStateException e) {
+      return false; // already completed
+    }
+  }
+
+  // timeouts and errors are followed by onComplete
+  private void releaseOnce(AtomicBoolean released) {
+    if (released.compareAndSet(false, true)) permits.release();
+  }
+}
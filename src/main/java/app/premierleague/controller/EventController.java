@@ -0,0 +1,32 @@
+package app.premierleague.controller;
+
+import app.premierleague.service.EventFeed;
+import app.premierleague.service.MatchOutbox;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+
+@RestController
+public class EventController {
+  private static final int MAX_WAIT_SECONDS = 60;
+
+  private final EventFeed feed;
+  public EventController(EventFeed feed){ this.feed = feed; }
+
+  // Change feed over the match_events outbox. Start at after=0 and pass back "next" each time; with
+  // wait>0 the call blocks until something past the cursor commits or the wait runs out (empty page).
+  @GetMapping("/events")
+  public DeferredResult<EventFeed.Page> events(@RequestParam(defaultValue = "0") long after,
+                                               @RequestParam(defaultValue = "100") int limit,
+                                               @RequestParam(defaultValue = "30") int wait) {
+    if (after < 0) throw new IllegalArgumentException("after must be >= 0");
+    if (limit < 1 || limit > MatchOutbox.MAX_PAGE) {
+      throw new IllegalArgumentException("limit must be between 1 and " + MatchOutbox.MAX_PAGE);
+    }
+    if (wait < 0 || wait > MAX_WAIT_SECONDS) {
+      throw new IllegalArgumentException("wait must be between 0 and " + MAX_WAIT_SECONDS + " seconds");
+    }
+    return feed.poll(after, limit, Duration.ofSeconds(wait));
+  }
+}
@@ -0,0 +1,28 @@
+package app.premierleague.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/** Opaque position in (kickoff, id) order, handed out as the {@code after} parameter of the next page. */
+record KeysetCursor(Instant kickoff, long id) {
+
+  // sorts before any real fixture
+  static final KeysetCursor START = new KeysetCursor(Instant.parse("1900-01-01T00:00:00Z"), 0);
+
+  static KeysetCursor decode(String token) {
+    if (token == null || token.isBlank()) return START;
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      int comma = raw.lastIndexOf(',');
+      return new KeysetCursor(Instant.parse(raw.substring(0, comma)), Long.parseLong(raw.substring(comma + 1)));
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + token);
+    }
+  }
+
+  String encode() {
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString((kickoff + "," + id).getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -2,39 +2,150 @@ package app.premierleague.controller;
 
 import app.premierleague.domain.Match;
 import app.premierleague.repository.MatchRepository;
-import app.premierleague.repository.TeamRepository;
+import app.premierleague.service.FixtureImporter;
+import app.premierleague.service.IdempotencyStore;
+import app.premierleague.service.MatchService;
+import app.premierleague.service.MatchStreamer;
+import app.premierleague.service.StandingsWriter;
+import app.premierleague.service.Teams;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.BiFunction;
 
 @RestController
 public class MatchController {
 
+  private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+  private static final int DEFAULT_PAGE = 100;
+  private static final int MAX_PAGE = 1000;
+
   private final MatchRepository matchRepo;
-  private final TeamRepository teamRepo;
+  private final Teams teams;
+  private final MatchService service;
+  private final FixtureImporter importer;
+  private final MatchStreamer streamer;
+  private final StandingsWriter standings;
+  private final IdempotencyStore idempotency;
+  private final ObjectMapper mapper;
 
-  public MatchController(MatchRepository matchRepo, TeamRepository teamRepo) {
+  public MatchController(MatchRepository matchRepo, Teams teams, MatchService service,
+                         FixtureImporter importer, MatchStreamer streamer, StandingsWriter standings,
+                         IdempotencyStore idempotency, ObjectMapper mapper) {
     this.matchRepo = matchRepo;
-    this.teamRepo = teamRepo;
+    this.teams = teams;
+    this.service = service;
+    this.importer = importer;
+    this.streamer = streamer;
+    this.standings = standings;
+    this.idempotency = idempotency;
+    this.mapper = mapper;
   }
 
+  // The three listings below answer in one of three ways:
+  //  - Accept: application/x-ndjson -> every row streamed through a DB cursor, flat memory
+  //  - ?limit=&after=               -> one keyset page, next page in the Link header
+  //  - neither                      -> the full list, as before
   @GetMapping("/matches")
-  public List<Match> list(@RequestParam(required = false) String status) {
-    if (status == null || status.isBlank()) return matchRepo.findAllByOrderByKickoffAsc();
-    return matchRepo.findByStatusOrderByKickoffAsc(status);
+  public ResponseEntity<?> list(@RequestParam(required = false) String status,
+                                @RequestParam(required = false) Integer limit,
+                                @RequestParam(required = false) String after,
+                                @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+    String st = (status == null || status.isBlank()) ? null : status;
+    if (wantsNdjson(accept)) return ndjson(st, null);
+    if (limit == null && after == null) {
+      return ResponseEntity.ok(st == null ? matchRepo.findAllByOrderByKickoffAsc() : matchRepo.findByStatusOrderByKickoffAsc(st));
+    }
+    return page(limit, after, (c, n) -> matchPage(st, c, n));
   }
 
   @GetMapping("/fixtures")
-  public List<Match> fixtures() {
-    return matchRepo.findByStatusOrderByKickoffAsc("SCHEDULED");
+  public ResponseEntity<?> fixtures(@RequestParam(required = false) Integer limit,
+                                    @RequestParam(required = false) String after,
+                                    @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+    if (wantsNdjson(accept)) return ndjson("SCHEDULED", null);
+    if (limit == null && after == null) return ResponseEntity.ok(matchRepo.findByStatusOrderByKickoffAsc("SCHEDULED"));
+    return page(limit, after, (c, n) -> matchPage("SCHEDULED", c, n));
   }
 
   @GetMapping("/teams/{teamId}/fixtures")
-  public List<Match> fixturesForTeam(@PathVariable Integer teamId,
-                                     @RequestParam(required = false) String status) {
-    return matchRepo.findTeamMatches(teamId, status);
+  public ResponseEntity<?> fixturesForTeam(@PathVariable Integer teamId,
+                                           @RequestParam(required = false) String status,
+                                           @RequestParam(required = false) Integer limit,
+                                           @RequestParam(required = false) String after,
+                                           @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+    String st = (status == null || status.isBlank()) ? null : status;
+    if (wantsNdjson(accept)) return ndjson(st, teamId);
+    if (limit == null && after == null) return ResponseEntity.ok(matchRepo.findTeamMatches(teamId, st));
+    return page(limit, after, (c, n) -> matchRepo.teamPageAfter(teamId, st, c.kickoff(), c.id(), n.max()));
+  }
+
+  // the first page has its own cached finder; pages after a cursor are not cached
+  private List<Match> matchPage(String status, KeysetCursor c, Limit n) {
+    if (c == KeysetCursor.START) {
+      return status == null ? matchRepo.findByOrderByKickoffAscIdAsc(n) : matchRepo.findByStatusOrderByKickoffAscIdAsc(status, n);
+    }
+    return status == null
+        ? matchRepo.pageAfter(c.kickoff(), c.id(), n)
+        : matchRepo.pageByStatusAfter(status, c.kickoff(), c.id(), n);
+  }
+
+  private static boolean wantsNdjson(String accept) {
+    return accept != null && accept.contains(NDJSON.toString());
+  }
+
+  private ResponseEntity<StreamingResponseBody> ndjson(String status, Integer teamId) {
+    StreamingResponseBody body = out -> {
+      var gen = mapper.getFactory().createGenerator(out);
+      gen.setRootValueSeparator(new SerializedString("\n"));
+      var wrote = new boolean[1];
+      streamer.stream(status, teamId, m -> {
+        try {
+          gen.writeObject(m);
+          wrote[0] = true;
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+      // the separator only goes between rows; terminate the last one, and send nothing for no rows
+      if (wrote[0]) gen.writeRaw('\n');
+      gen.flush();
+    };
+    return ResponseEntity.ok().contentType(NDJSON).body(body);
+  }
+
+  private ResponseEntity<List<Match>> page(Integer limit, String after, BiFunction<KeysetCursor, Limit, List<Match>> query) {
+    int n = limit == null ? DEFAULT_PAGE : limit;
+    if (n < 1 || n > MAX_PAGE) throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE);
+
+    // one extra row tells us whether a next page exists
+    List<Match> rows = query.apply(KeysetCursor.decode(after), Limit.of(n + 1));
+    if (rows.size() <= n) return ResponseEntity.ok(rows);
+
+    rows = rows.subList(0, n);
+    var last = rows.get(n - 1);
+    String next = new KeysetCursor(last.getKickoff(), last.getId()).encode();
+    String nextUrl = ServletUriComponentsBuilder.fromCurrentRequest()
+        .replaceQueryParam("after", next)
+        .replaceQueryParam("limit", n)
+        .toUriString();
+    return ResponseEntity.ok()
+        .header(HttpHeaders.LINK, "<" + nextUrl + ">; rel=\"next\"")
+        .header("X-Next-Cursor", next)
+        .body(rows);
   }
 
   // 1) Create a fixture (no DTO)
@@ -43,29 +154,42 @@ public class MatchController {
     if (Objects.equals(match.getHomeTeamId(), match.getAwayTeamId())) {
       throw new IllegalArgumentException("home and away must differ");
     }
-    teamRepo.findById(match.getHomeTeamId()).orElseThrow();
-    teamRepo.findById(match.getAwayTeamId()).orElseThrow();
+    teams.get(match.getHomeTeamId());
+    teams.get(match.getAwayTeamId());
+    return ResponseEntity.ok(service.createFixture(match));
+  }
 
-    match.setHomeGoals(0);
-    match.setAwayGoals(0);
-    match.setStatus("SCHEDULED");
-    return ResponseEntity.ok(matchRepo.save(match));
+  // 1b) Bulk-create fixtures from a streamed text/csv or application/x-ndjson body
+  @PostMapping(value = "/matches/import", consumes = {"text/csv", "application/x-ndjson"})
+  public FixtureImporter.Report importFixtures(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                               InputStream body) throws Exception {
+    return importer.importFixtures(body, FixtureImporter.Format.fromContentType(contentType));
   }
 
   // 2) Submit the result (set scores and mark FT)
   @PatchMapping("/matches/{id}/result")
   public ResponseEntity<Match> submitResult(@PathVariable Long id,
-                                            @RequestBody Match body) {
-    var m = matchRepo.findById(id).orElseThrow();
+                                            @RequestBody Match body,
+                                            @RequestParam(defaultValue = "false") boolean readYourWrites,
+                                            @RequestHeader(value = ResultController.IDEMPOTENCY_KEY, required = false) String key,
+                                            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
     if (body.getHomeGoals() == null || body.getAwayGoals() == null) {
       throw new IllegalArgumentException("homeGoals and awayGoals are required");
     }
     if (body.getHomeGoals() < 0 || body.getAwayGoals() < 0) {
       throw new IllegalArgumentException("scores must be non-negative");
     }
-    m.setHomeGoals(body.getHomeGoals());
-    m.setAwayGoals(body.getAwayGoals());
-    m.setStatus("FT"); // finished
-    return ResponseEntity.ok(matchRepo.save(m));
+    // goes through the service so the standings delta is applied with the write
+    return ResultController.acknowledge(
+        ResultController.record(idempotency, service, key, id, body.getHomeGoals(), body.getAwayGoals(), ifMatch),
+        readYourWrites, standings);
+  }
+
+  // 3) Change status (POSTPONED/CANCELLED/...); leaving FT reverses the result in the table
+  @PatchMapping("/matches/{id}/status")
+  public ResponseEntity<Match> updateStatus(@PathVariable Long id, @RequestBody Map<String,String> body,
+                                            @RequestParam(defaultValue = "false") boolean readYourWrites) {
+    var status = Objects.requireNonNull(body.get("status"), "status is required");
+    return ResultController.acknowledge(service.updateStatus(id, status), readYourWrites, standings);
   }
 }
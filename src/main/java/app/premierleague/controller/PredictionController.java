@@ -0,0 +1,19 @@
+package app.premierleague.controller;
+
+import app.premierleague.service.Predictions;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class PredictionController {
+  private final Predictions predictions;
+  public PredictionController(Predictions predictions){
+    this.predictions = predictions;
+  }
+
+  // Current season's title / top-4 / relegation odds; cached until the next match or standings commit
+  @GetMapping("/predictions")
+  public Predictions.Forecast predictions() {
+    return predictions.current();
+  }
+}
@@ -0,0 +1,74 @@
+package app.premierleague.controller;
+
+import app.premierleague.db.ReadRouting;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Lets GET and HEAD requests read from a replica, unless the caller wrote recently.
+ *
+ * Any other method pins the caller to the primary for {@code pl.datasource.replica.pin-seconds} with a
+ * {@value #PIN} cookie holding the deadline, so a client that records a result and then reloads the table sees
+ * its own write even if the replicas have not replayed it yet. Clients without a cookie jar can send the
+ * cookie back themselves. /ws and /ws-fast are POST and so always use the primary.
+ */
+@Component
+@ConditionalOnExpression("'${pl.datasource.replica.urls:}' != ''")
+public class ReadRoutingFilter extends OncePerRequestFilter {
+
+  static final String PIN = "pl-primary-until";
+
+  private final int pinSeconds;
+
+  public ReadRoutingFilter(@Value("${pl.datasource.replica.pin-seconds:5}") int pinSeconds) {
+    this.pinSeconds = pinSeconds;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    String method = request.getMethod();
+    if (!"GET".equals(method) && !"HEAD".equals(method)) {
+      // set before the chain runs; once the body is committed the header cannot be added
+      var pin = new Cookie(PIN, Long.toString(System.currentTimeMillis() + pinSeconds * 1000L));
+      pin.setPath("/");
+      pin.setMaxAge(pinSeconds);
+      pin.setHttpOnly(true);
+      response.addCookie(pin);
+      chain.doFilter(request, response);
+      return;
+    }
+    if (pinned(request)) {
+      chain.doFilter(request, response);
+      return;
+    }
+    ReadRouting.allowReplica();
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      ReadRouting.clear();
+    }
+  }
+
+  private static boolean pinned(HttpServletRequest request) {
+    if (request.getCookies() == null) return false;
+    for (var c : request.getCookies()) {
+      if (!PIN.equals(c.getName())) continue;
+      try {
+        return Long.parseLong(c.getValue()) > System.currentTimeMillis();
+      } catch (NumberFormatException e) {
+        return false;
+      }
+    }
+    return false;
+  }
+}
@@ -1,21 +1,87 @@
 package app.premierleague.controller;
 
 import app.premierleague.domain.Match;
+import app.premierleague.service.IdempotencyStore;
 import app.premierleague.service.MatchService;
-import org.springframework.http.HttpStatus;
+import app.premierleague.service.ResultSubmission;
+import app.premierleague.service.StandingsWriter;
+import app.premierleague.service.SubmissionOutcome;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 record ResultReq(int homeGoals, int awayGoals) {}
 
 @RestController
 @RequestMapping("/matches")
 public class ResultController {
+  static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
   private final MatchService service;
-  public ResultController(MatchService service){ this.service = service; }
+  private final StandingsWriter standings;
+  private final IdempotencyStore idempotency;
+  public ResultController(MatchService service, StandingsWriter standings, IdempotencyStore idempotency){
+    this.service = service;
+    this.standings = standings;
+    this.idempotency = idempotency;
+  }
 
   @PostMapping("/{id}/result")
-  @ResponseStatus(HttpStatus.OK)
-  public Match record(@PathVariable long id, @RequestBody ResultReq body) {
-    return service.recordResult(id, body.homeGoals(), body.awayGoals());
+  public ResponseEntity<Match> record(@PathVariable long id, @RequestBody ResultReq body,
+                                      @RequestParam(defaultValue = "false") boolean readYourWrites,
+                                      @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String key,
+                                      @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    return acknowledge(record(idempotency, service, key, id, body.homeGoals(), body.awayGoals(), ifMatch),
+        readYourWrites, standings);
+  }
+
+  // A whole matchday in one call: [{matchId, homeGoals, awayGoals}, ...] -> per-item outcome
+  @PostMapping("/results:batch")
+  public ResponseEntity<List<SubmissionOutcome>> recordBatch(@RequestBody List<ResultSubmission> body,
+                                                             @RequestParam(defaultValue = "false") boolean readYourWrites,
+                                                             @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String key) {
+    return acknowledge(idempotency.execute("record-batch", key, List.copyOf(body), () -> service.recordResults(body)),
+        readYourWrites, standings);
+  }
+
+  // Shared with PATCH /matches/{id}/result. The key space is shared with SOAP recordResultRequest, so a
+  // delivery retried over the other transport is answered from the same stored result.
+  static IdempotencyStore.Result<Match> record(IdempotencyStore idempotency, MatchService service, String key,
+                                               long id, int homeGoals, int awayGoals, String ifMatch) {
+    Long version = expectedVersion(ifMatch);
+    return idempotency.execute("record", key, new ResultSubmission(id, homeGoals, awayGoals),
+        () -> service.recordResult(id, homeGoals, awayGoals, version));
+  }
+
+  // If-Match carries the match's ETag, which is its version: "3", W/"3" or a bare 3
+  private static Long expectedVersion(String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) return null;
+    String v = ifMatch.trim();
+    if (v.startsWith("W/")) v = v.substring(2);
+    v = v.replace("\"", "");
+    try {
+      return Long.parseLong(v);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("If-Match must be a match version, got " + ifMatch);
+    }
+  }
+
+  // Results are acknowledged once the match row commits; the table catches up a few ms later.
+  // ?readYourWrites=true holds the response until it has, so a following GET /table sees the result.
+  // X-Standings says which happened: "applied", or "pending" (not asked for, or timed out waiting).
+  // A Match body also carries its version as the ETag; a result answered from the idempotency store says so
+  // in Idempotent-Replayed.
+  static <T> ResponseEntity<T> acknowledge(T body, boolean readYourWrites, StandingsWriter standings) {
+    return acknowledge(new IdempotencyStore.Result<>(body, false), readYourWrites, standings);
+  }
+
+  static <T> ResponseEntity<T> acknowledge(IdempotencyStore.Result<T> result, boolean readYourWrites, StandingsWriter standings) {
+    boolean applied = readYourWrites && standings.awaitApplied();
+    var response = ResponseEntity.ok().header("X-Standings", applied ? "applied" : "pending");
+    if (result.value() instanceof Match m && m.getVersion() != null) response.eTag("\"" + m.getVersion() + "\"");
+    if (result.replayed()) response.header("Idempotent-Replayed", "true");
+    return response.body(result.value());
   }
 }
@@ -0,0 +1,45 @@
+package app.premierleague.controller;
+
+import app.premierleague.service.Season;
+import app.premierleague.service.Seasons;
+import app.premierleague.service.StandingsWriter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+record SeasonReq(String competition, String label, LocalDate startsOn, LocalDate endsOn) {}
+
+@RestController
+public class SeasonController {
+  private final Seasons seasons;
+  private final StandingsWriter standings;
+  public SeasonController(Seasons seasons, StandingsWriter standings){
+    this.seasons = seasons;
+    this.standings = standings;
+  }
+
+  @GetMapping("/seasons")
+  public List<Season> list() {
+    return seasons.all();
+  }
+
+  // New season plus its matches partition; fixtures can be added to it straight away
+  @PostMapping("/admin/seasons")
+  public Season create(@RequestBody SeasonReq body) {
+    if (body.label() == null || body.startsOn() == null || body.endsOn() == null) {
+      throw new IllegalArgumentException("label, startsOn and endsOn are required");
+    }
+    String competition = body.competition() == null ? Seasons.DEFAULT_COMPETITION : body.competition();
+    return seasons.create(competition, body.label(), body.startsOn(), body.endsOn());
+  }
+
+  // Switches the live table and rebuilds (from its own partition only) to the given season
+  @PostMapping("/admin/seasons/{id}/current")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void makeCurrent(@PathVariable int id) {
+    seasons.makeCurrent(id);
+    standings.rebuild(id);
+  }
+}
@@ -0,0 +1,21 @@
+package app.premierleague.controller;
+
+import app.premierleague.service.SnapshotArchive;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/admin/snapshot")
+public class SnapshotAdminController {
+  private final SnapshotArchive archive;
+  public SnapshotAdminController(SnapshotArchive archive){
+    this.archive = archive;
+  }
+
+  // Dumps matches and standings to the columnar file (pl.snapshot.path) for fast warm-up and offline scans
+  @PostMapping
+  public SnapshotArchive.Written write() {
+    return archive.write();
+  }
+}
@@ -0,0 +1,34 @@
+package app.premierleague.controller;
+
+import app.premierleague.service.StandingsEngine;
+import app.premierleague.service.StandingsMismatch;
+import app.premierleague.service.StandingsWriter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/admin/standings")
+public class StandingsAdminController {
+  private final StandingsEngine engine;
+  private final StandingsWriter writer;
+  public StandingsAdminController(StandingsEngine engine, StandingsWriter writer){
+    this.engine = engine;
+    this.writer = writer;
+  }
+
+  // Full re-aggregation from matches; repair only, normal writes are incremental.
+  // Current seasons by default, ?season= for one (e.g. an old season never built before).
+  @PostMapping("/rebuild")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void rebuild(@RequestParam(required = false) Integer season) {
+    writer.rebuild(season);
+  }
+
+  // Empty list = incremental table agrees with the full aggregation
+  @GetMapping("/check")
+  public List<StandingsMismatch> check(@RequestParam(required = false) Integer season) {
+    return season == null ? engine.verify() : engine.verify(season);
+  }
+}
@@ -0,0 +1,19 @@
+package app.premierleague.controller;
+
+import app.premierleague.service.LiveFeed;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+public class StreamController {
+  private final LiveFeed feed;
+  public StreamController(LiveFeed feed){ this.feed = feed; }
+
+  // Server-Sent Events: "match" = one changed match, "standings" = table rows that moved
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter stream() {
+    return feed.subscribe();
+  }
+}
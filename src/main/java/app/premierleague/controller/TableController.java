@@ -1,18 +1,120 @@
 package app.premierleague.controller;
 
-import app.premierleague.domain.Standing;
 import app.premierleague.repository.StandingRepository;
+import app.premierleague.service.LeagueTable;
+import app.premierleague.service.RankingEngine;
+import app.premierleague.service.Seasons;
+import app.premierleague.service.StandingsHistory;
+import app.premierleague.service.TableViews;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 @RestController
 public class TableController {
-  private final StandingRepository repo;
-  public TableController(StandingRepository repo){ this.repo = repo; }
+  private final LeagueTable table;
+  private final StandingsHistory history;
+  private final StandingRepository standings;
+  private final Seasons seasons;
+  private final TableViews views;
+  private final RankingEngine ranking;
+  public TableController(LeagueTable table, StandingsHistory history, StandingRepository standings, Seasons seasons,
+                         TableViews views, RankingEngine ranking){
+    this.table = table;
+    this.history = history;
+    this.standings = standings;
+    this.seasons = seasons;
+    this.views = views;
+    this.ranking = ranking;
+  }
 
+  // Current season, served from the in-memory snapshot; unchanged tables answer 304 from the ETag alone.
+  // ?season=<id> reads another season's table; ?matchweek=N (of ?season, default current) reads a past table
+  // from standings_history, and ?asOf=2025-01-01 (or an ISO instant) replays the results before that instant.
   @GetMapping("/table")
-  public List<Standing> table() {
-    return repo.findAllByOrderByPointsDescGdDescGfDesc();
+  public ResponseEntity<?> table(@RequestParam(required = false) String asOf,
+                                 @RequestParam(required = false) Integer matchweek,
+                                 @RequestParam(required = false) Integer season,
+                                 WebRequest request) {
+    if (asOf != null && (matchweek != null || season != null)) {
+      throw new IllegalArgumentException("asOf picks its own season; it cannot be combined with matchweek or season");
+    }
+    if (asOf != null) return ResponseEntity.ok(history.asOf(parseInstant(asOf)));
+    if (matchweek != null) {
+      if (matchweek < 1) throw new IllegalArgumentException("matchweek must be >= 1");
+      return ResponseEntity.ok(history.atMatchweek(seasonOrCurrent(season), matchweek));
+    }
+    if (season != null) {
+      var s = seasons.get(season);
+      return ResponseEntity.ok(ranking.rank(s, standings.findBySeasonIdOrderByPointsDescGdDescGfDesc(s.id())));
+    }
+
+    var snap = table.current();
+    if (request.checkNotModified(snap.etag())) return null;
+    return ResponseEntity.ok()
+        .eTag(snap.etag())
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(snap.json());
+  }
+
+  // The client's views of the current season, each a cached payload revalidated by ETag: the table with
+  // last-5 form, home-only and away-only tables, and per-team goal stats
+  @GetMapping("/table/form")
+  public ResponseEntity<byte[]> form(WebRequest request) {
+    return view(views.current().view(TableViews.Venue.ALL), request);
+  }
+
+  @GetMapping("/table/home")
+  public ResponseEntity<byte[]> home(WebRequest request) {
+    return view(views.current().view(TableViews.Venue.HOME), request);
+  }
+
+  @GetMapping("/table/away")
+  public ResponseEntity<byte[]> away(WebRequest request) {
+    return view(views.current().view(TableViews.Venue.AWAY), request);
+  }
+
+  @GetMapping("/table/goals")
+  public ResponseEntity<byte[]> goals(WebRequest request) {
+    return view(views.current().goalsView(), request);
+  }
+
+  private static ResponseEntity<byte[]> view(TableViews.View view, WebRequest request) {
+    if (request.checkNotModified(view.etag())) return null;
+    return ResponseEntity.ok()
+        .eTag(view.etag())
+        .cacheControl(CacheControl.noCache())
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(view.json());
+  }
+
+  // One row per matchweek of the season (default current), for position-over-time charts
+  @GetMapping("/teams/{teamId}/positions")
+  public List<StandingsHistory.Position> positions(@PathVariable int teamId,
+                                                   @RequestParam(required = false) Integer season) {
+    return history.positions(teamId, seasonOrCurrent(season));
+  }
+
+  private int seasonOrCurrent(Integer season) {
+    return season != null ? seasons.get(season).id() : seasons.current(Seasons.DEFAULT_COMPETITION).id();
+  }
+
+  private static Instant parseInstant(String s) {
+    try {
+      return s.length() == 10 ? LocalDate.parse(s).atStartOfDay(ZoneOffset.UTC).toInstant() : Instant.parse(s);
+    } catch (DateTimeParseException e) {
+      throw new IllegalArgumentException("asOf must be an ISO date or instant: " + s);
+    }
   }
 }
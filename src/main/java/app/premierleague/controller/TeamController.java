@@ -1,33 +1,40 @@
 package app.premierleague.controller;
 
 import app.premierleague.domain.Team;
-import app.premierleague.repository.TeamRepository;
+import app.premierleague.service.Teams;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 
 @RestController
 @RequestMapping("/teams")
 public class TeamController {
-  private final TeamRepository repo;
+  private final Teams teams;
 
-  public TeamController(TeamRepository repo) {
-    this.repo = repo;
+  public TeamController(Teams teams) {
+    this.teams = teams;
   }
 
+  // Served from the cached snapshot; clients revalidate with If-None-Match / If-Modified-Since and get a 304
   @GetMapping
-  public List<Team> all() {
-    return repo.findAll();
+  public ResponseEntity<byte[]> all(WebRequest request) {
+    var snap = teams.current();
+    if (request.checkNotModified(snap.etag(), snap.lastModified().toEpochMilli())) return null;
+    return ResponseEntity.ok()
+        .eTag(snap.etag())
+        .lastModified(snap.lastModified())
+        .cacheControl(CacheControl.noCache())
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(snap.json());
   }
 
   @PatchMapping("/{id}/owner")
   public ResponseEntity<Team> setOwner(@PathVariable long id, @RequestBody Map<String,String> body) {
-    var team = repo.findById((int) id)
-        .orElseThrow(() -> new IllegalArgumentException("Team not found: " + id));
-    team.setOwner(Objects.requireNonNull(body.get("owner"), "owner is required"));
-    return ResponseEntity.ok(repo.save(team));
+    return ResponseEntity.ok(teams.setOwner((int) id, Objects.requireNonNull(body.get("owner"), "owner is required")));
   }
 }
@@ -0,0 +1,39 @@
+package app.premierleague.db;
+
+import java.util.function.Supplier;
+
+/**
+ * Per-thread say in where {@link ReplicaRoutingDataSource} sends the next connection.
+ *
+ * Replicas are opt-in: ReadRoutingFilter allows them for the duration of an unpinned GET, and nothing else
+ * does. Code that fills a long-lived cache runs its reads through {@link #onPrimary}, because a cache filled
+ * from a lagging replica would keep the stale rows until the next write invalidates it.
+ */
+public final class ReadRouting {
+
+  private static final ThreadLocal<Boolean> REPLICA_ALLOWED = new ThreadLocal<>();
+
+  private ReadRouting() {}
+
+  public static <T> T onPrimary(Supplier<T> work) {
+    Boolean was = REPLICA_ALLOWED.get();
+    REPLICA_ALLOWED.set(Boolean.FALSE);
+    try {
+      return work.get();
+    } finally {
+      REPLICA_ALLOWED.set(was);
+    }
+  }
+
+  static boolean replicaAllowed() {
+    return Boolean.TRUE.equals(REPLICA_ALLOWED.get());
+  }
+
+  public static void allowReplica() {
+    REPLICA_ALLOWED.set(Boolean.TRUE);
+  }
+
+  public static void clear() {
+    REPLICA_ALLOWED.remove();
+  }
+}
@@ -0,0 +1,124 @@
+package app.premierleague.db;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Polls each replica for how far its replay trails the primary and hands out the ones within tolerance.
+ *
+ * A replica counts as usable only while it is in recovery, its WAL receiver is streaming, and the last
+ * transaction it replayed is at most {@code maxStalenessMillis} old, or it has replayed everything it
+ * received. A replica that lost its upstream reports no lag while falling further behind, hence the
+ * receiver check. A replica that fails the probe is skipped until a later probe succeeds.
+ */
+final class ReplicaLag implements AutoCloseable {
+
+  private static final Logger log = LoggerFactory.getLogger(ReplicaLag.class);
+
+  private static final String PROBE = """
+      SELECT pg_is_in_recovery(),
+             EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE status = 'streaming'),
+             CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                  ELSE coalesce(EXTRACT(EPOCH FROM clock_timestamp() - pg_last_xact_replay_timestamp()) * 1000, 0)
+             END
+      """;
+
+  static final class Replica {
+    final String key;
+    final DataSource dataSource;
+    volatile boolean usable;
+    volatile double lagMillis = Double.NaN;
+
+    Replica(String key, DataSource dataSource) {
+      this.key = key;
+      this.dataSource = dataSource;
+    }
+  }
+
+  private final List<Replica> replicas;
+  private final long maxStalenessMillis;
+  private final AtomicInteger next = new AtomicInteger();
+  private final ScheduledExecutorService prober = Executors.newSingleThreadScheduledExecutor(r -> {
+    var t = new Thread(r, "replica-lag");
+    t.setDaemon(true);
+    return t;
+  });
+
+  ReplicaLag(List<Replica> replicas, long maxStalenessMillis, long checkMillis, MeterRegistry registry) {
+    this.replicas = replicas;
+    this.maxStalenessMillis = maxStalenessMillis;
+    for (var r : replicas) {
+      Gauge.builder("pl.datasource.replica.lag", r, x -> x.lagMillis)
+          .tag("replica", r.key).baseUnit("milliseconds")
+          .description("How far the replica's replay trails the primary; NaN while it cannot be probed")
+          .register(registry);
+      Gauge.builder("pl.datasource.replica.usable", r, x -> x.usable ? 1 : 0).tag("replica", r.key).register(registry);
+    }
+    prober.scheduleWithFixedDelay(this::probeAll, 0, checkMillis, TimeUnit.MILLISECONDS);
+  }
+
+  List<Replica> replicas() {
+    return replicas;
+  }
+
+  boolean anyUsable() {
+    for (var r : replicas) {
+      if (r.usable) return true;
+    }
+    return false;
+  }
+
+  /** A usable replica, round-robin, or null when none is within tolerance. */
+  String pick() {
+    int n = replicas.size();
+    int start = Math.floorMod(next.getAndIncrement(), n);
+    for (int i = 0; i < n; i++) {
+      var r = replicas.get((start + i) % n);
+      if (r.usable) return r.key;
+    }
+    return null;
+  }
+
+  private void probeAll() {
+    for (var r : replicas) {
+      boolean was = r.usable;
+      try (var c = r.dataSource.getConnection(); var st = c.createStatement(); var rs = st.executeQuery(PROBE)) {
+        rs.next();
+        boolean standby = rs.getBoolean(1), streaming = rs.getBoolean(2);
+        r.lagMillis = rs.getDouble(3);
+        r.usable = standby && streaming && r.lagMillis <= maxStalenessMillis;
+        if (was != r.usable) {
+          log.info("Replica {} is now {} (standby={}, streaming={}, lag={} ms)",
+              r.key, r.usable ? "in rotation" : "out of rotation", standby, streaming, Math.round(r.lagMillis));
+        }
+      } catch (Exception e) {
+        r.usable = false;
+        r.lagMillis = Double.NaN;
+        if (was) log.warn("Replica {} is out of rotation: {}", r.key, e.getMessage());
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    prober.shutdownNow();
+    for (var r : replicas) {
+      if (r.dataSource instanceof AutoCloseable pool) {
+        try {
+          pool.close();
+        } catch (Exception e) {
+          log.debug("Closing {}: {}", r.key, e.getMessage());
+        }
+      }
+    }
+  }
+}
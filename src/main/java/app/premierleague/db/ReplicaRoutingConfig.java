@@ -0,0 +1,91 @@
+package app.premierleague.db;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read replicas behind the application's DataSource, switched on by setting {@code pl.datasource.replica.urls}.
+ *
+ * The primary pool is built from spring.datasource.* as Boot would build it; each replica gets a smaller
+ * read-only pool of its own. Everything that injects a DataSource (JPA, JdbcTemplate, SQL init) gets the
+ * routing proxy, so nothing outside this package knows replicas exist.
+ *
+ * Sessions that may read from a replica still read the L2 and query caches but do not fill them: a row read
+ * just before the replica replays a write would otherwise sit in the shared cache after the write's own
+ * invalidation has passed.
+ */
+@Configuration
+@ConditionalOnExpression("'${pl.datasource.replica.urls:}' != ''")
+public class ReplicaRoutingConfig {
+
+  @Bean
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+    return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  @Bean(destroyMethod = "close")
+  ReplicaLag replicaLag(DataSourceProperties properties, MeterRegistry registry,
+                        @Value("${pl.datasource.replica.urls}") List<String> urls,
+                        @Value("${pl.datasource.replica.username:}") String username,
+                        @Value("${pl.datasource.replica.password:}") String password,
+                        @Value("${pl.datasource.replica.pool-size:16}") int poolSize,
+                        @Value("${pl.datasource.replica.max-staleness-ms:1000}") long maxStalenessMillis,
+                        @Value("${pl.datasource.replica.lag-check-ms:1000}") long checkMillis) {
+    var replicas = new ArrayList<ReplicaLag.Replica>();
+    for (int i = 0; i < urls.size(); i++) {
+      var pool = new HikariDataSource();
+      pool.setPoolName("replica-" + i);
+      pool.setJdbcUrl(urls.get(i).trim());
+      pool.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+      pool.setPassword(password.isEmpty() ? properties.determinePassword() : password);
+      pool.setMaximumPoolSize(poolSize);
+      pool.setReadOnly(true);
+      // a replica that is down must not hold up startup; the probe keeps it out of rotation until it answers
+      pool.setInitializationFailTimeout(-1);
+      pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+      replicas.add(new ReplicaLag.Replica(pool.getPoolName(), pool));
+    }
+    return new ReplicaLag(replicas, maxStalenessMillis, checkMillis, registry);
+  }
+
+  @Bean
+  @Primary
+  public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaLag replicaLag, MeterRegistry registry) {
+    var routing = new ReplicaRoutingDataSource(replicaLag, registry);
+    Map<Object, Object> targets = new HashMap<>();
+    targets.put(ReplicaRoutingDataSource.PRIMARY, primaryDataSource);
+    replicaLag.replicas().forEach(r -> targets.put(r.key, r.dataSource));
+    routing.setTargetDataSources(targets);
+    routing.setDefaultTargetDataSource(primaryDataSource);
+    routing.afterPropertiesSet();
+    // defers the lookup to the first statement, by which time the transaction's read-only flag is known
+    return new LazyConnectionDataSourceProxy(routing);
+  }
+
+  @Bean
+  TransactionManagerCustomizer<JpaTransactionManager> replicaCacheMode(ReplicaLag replicaLag) {
+    return tm -> tm.setEntityManagerInitializer(em -> {
+      if (ReadRouting.replicaAllowed() && replicaLag.anyUsable()) em.unwrap(Session.class).setCacheMode(CacheMode.GET);
+    });
+  }
+}
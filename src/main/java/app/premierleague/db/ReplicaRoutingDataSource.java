@@ -0,0 +1,45 @@
+package app.premierleague.db;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Sends a connection to a replica when the thread allows it ({@link ReadRouting}), no read-write transaction
+ * is open, and {@link ReplicaLag} has a replica within tolerance; otherwise to the primary.
+ *
+ * The key is decided when a connection is actually fetched. Wrapped in a LazyConnectionDataSourceProxy that
+ * is the first statement, after the transaction manager has marked the transaction read-only or not.
+ */
+final class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  static final String PRIMARY = "primary";
+
+  private final ReplicaLag lag;
+  private final Counter toPrimary, toReplica, fallback;
+
+  ReplicaRoutingDataSource(ReplicaLag lag, MeterRegistry registry) {
+    this.lag = lag;
+    this.toPrimary = registry.counter("pl.datasource.route", "target", "primary", "reason", "write");
+    this.fallback = registry.counter("pl.datasource.route", "target", "primary", "reason", "no-replica");
+    this.toReplica = registry.counter("pl.datasource.route", "target", "replica", "reason", "read");
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    boolean readWrite = TransactionSynchronizationManager.isActualTransactionActive()
+        && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    if (!ReadRouting.replicaAllowed() || readWrite) {
+      toPrimary.increment();
+      return PRIMARY;
+    }
+    String replica = lag.pick();
+    if (replica == null) {
+      fallback.increment();
+      return PRIMARY;
+    }
+    toReplica.increment();
+    return replica;
+  }
+}
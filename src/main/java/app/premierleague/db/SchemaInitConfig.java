@@ -0,0 +1,48 @@
+package app.premierleague.db;
+
+import app.premierleague.service.SnapshotArchive;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.sql.init.SqlDataSourceScriptDatabaseInitializer;
+import org.springframework.boot.autoconfigure.sql.init.SqlInitializationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+
+/**
+ * Runs the spring.sql.init schema and seed scripts, unless the database still matches the columnar snapshot.
+ *
+ * The scripts drop and recreate every table. A database that the snapshot still describes already has that
+ * schema and data, and keeping it is what lets SnapshotArchive warm the caches from the file at startup. Any
+ * other database, including one with no tables yet, is initialized as before. Off unless
+ * pl.snapshot.keep-database is set: the fingerprint does not cover the schema, so a kept database never sees
+ * DDL changes in the scripts. Takes the place of Boot's own initializer bean, so JPA still waits for it.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlInitializationProperties.class)
+public class SchemaInitConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(SchemaInitConfig.class);
+
+  @Bean
+  SqlDataSourceScriptDatabaseInitializer dataSourceScriptDatabaseInitializer(
+      DataSource dataSource, SqlInitializationProperties properties,
+      @Value("${pl.snapshot.path:data/pl-snapshot.bin}") Path snapshot,
+      @Value("${pl.snapshot.keep-database:false}") boolean keepDatabase) {
+    return new SqlDataSourceScriptDatabaseInitializer(dataSource, properties) {
+      @Override
+      public boolean initializeDatabase() {
+        if (keepDatabase && SnapshotArchive.matching(snapshot, new JdbcTemplate(dataSource)).isPresent()) {
+          log.info("Database matches snapshot {}; keeping it instead of running the schema scripts", snapshot);
+          return false;
+        }
+        return super.initializeDatabase();
+      }
+    };
+  }
+}
@@ -1,14 +1,32 @@
 package app.premierleague.domain;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.CacheLayout;
+import org.hibernate.annotations.PartitionKey;
+import org.hibernate.annotations.QueryCacheLayout;
+
 import java.time.Instant;
 
+// Cached queries keep whole rows (FULL), so a hit on a long listing is not one entity lookup per id
 @Entity
 @Table(name = "matches")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "match")
+@QueryCacheLayout(layout = CacheLayout.FULL)
 public class Match {
   @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
   private Long id;
 
+  // null on create means "the default competition's season covering the kickoff". The partition key: Hibernate
+  // adds it to the WHERE of every UPDATE and DELETE, so a versioned write touches one season's partition
+  @PartitionKey
+  @Column(name = "season_id", nullable = false)
+  private Integer seasonId;
+
   @Column(name = "home_team_id", nullable = false)
   private Integer homeTeamId;
 
@@ -29,8 +47,16 @@ public class Match {
   @Column(nullable = false)
   private String status = "SCHEDULED";
 
+  @Version
+  @Column(nullable = false)
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private Long version;
+
   // getters/setters
   public Long getId() { return id; }
+  public void setId(Long v) { this.id = v; }
+  public Integer getSeasonId() { return seasonId; }
+  public void setSeasonId(Integer v) { this.seasonId = v; }
   public Integer getHomeTeamId() { return homeTeamId; }
   public void setHomeTeamId(Integer v) { this.homeTeamId = v; }
   public Integer getAwayTeamId() { return awayTeamId; }
@@ -45,4 +71,6 @@ public class Match {
   public void setAwayGoals(Integer v) { this.awayGoals = v; }
   public String getStatus() { return status; }
   public void setStatus(String v) { this.status = v; }
+  public Long getVersion() { return version; }
+  public void setVersion(Long v) { this.version = v; }
 }
@@ -2,14 +2,42 @@ package app.premierleague.domain;
 
 import jakarta.persistence.*;
 
-@Entity @Table(name="standings")
+import java.io.Serializable;
+import java.util.Objects;
+
+@Entity @Table(name="standings") @IdClass(Standing.Key.class)
 public class Standing {
+  @Id @Column(name="competition_id") private Integer competitionId;
+  @Id @Column(name="season_id") private Integer seasonId;
   @Id @Column(name="team_id") private Integer teamId;
   private int played; private int won; private int drawn; private int lost;
   private int gf; private int ga; private int gd; private int points;
+  protected Standing() {}
+
+  public Standing(int competitionId, int seasonId, int teamId, int played, int won, int drawn, int lost, int gf, int ga,
+                  int points) {
+    this.competitionId = competitionId; this.seasonId = seasonId; this.teamId = teamId;
+    this.played = played; this.won = won; this.drawn = drawn; this.lost = lost;
+    this.gf = gf; this.ga = ga; this.gd = gf - ga; this.points = points;
+  }
+
+  public Integer getCompetitionId(){return competitionId;}
+  public Integer getSeasonId(){return seasonId;}
   public Integer getTeamId(){return teamId;}
   public int getPlayed(){return played;} public int getWon(){return won;}
   public int getDrawn(){return drawn;}  public int getLost(){return lost;}
   public int getGf(){return gf;}        public int getGa(){return ga;}
   public int getGd(){return gd;}        public int getPoints(){return points;}
+
+  public static class Key implements Serializable {
+    private Integer competitionId;
+    private Integer seasonId;
+    private Integer teamId;
+
+    @Override public boolean equals(Object o) {
+      return o instanceof Key k && Objects.equals(competitionId, k.competitionId)
+          && Objects.equals(seasonId, k.seasonId) && Objects.equals(teamId, k.teamId);
+    }
+    @Override public int hashCode() { return Objects.hash(competitionId, seasonId, teamId); }
+  }
 }
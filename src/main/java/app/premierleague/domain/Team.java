@@ -1,9 +1,13 @@
 package app.premierleague.domain;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "teams")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "team")
 public class Team {
   @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
   private Integer id;
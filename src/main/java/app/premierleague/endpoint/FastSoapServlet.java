@@ -0,0 +1,98 @@
+package app.premierleague.endpoint;
+
+import app.premierleague.ws.RecordResultByTeamsRequest;
+import app.premierleague.ws.RecordResultRequest;
+import app.premierleague.ws.RecordResultsBatchRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.ws.soap.server.endpoint.annotation.FaultCode;
+import org.springframework.ws.soap.server.endpoint.annotation.SoapFault;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * High-throughput twin of the /ws endpoint, mounted at pl.soap.fast.path (default /ws-fast).
+ *
+ * Same WSDL contract and the same {@link MatchesEndpoint} methods, but the message goes through
+ * {@link StaxSoapCodec} instead of Spring-WS's SAAJ message factory and Jaxb2Marshaller. Requests are
+ * schema-validated unless they come from one of pl.soap.fast.trusted-callers. Those are matched on the remote
+ * address, so list only hosts that reach the app directly and not through a proxy. Faults follow what
+ * Spring-WS answers on /ws: Client for a malformed or invalid request; for anything the endpoint throws, the
+ * code and reason of the exception's {@link SoapFault}, else Server with the exception message.
+ */
+class FastSoapServlet extends HttpServlet {
+
+  private static final Logger log = LoggerFactory.getLogger(FastSoapServlet.class);
+  private static final String CONTENT_TYPE = "text/xml;charset=UTF-8";
+
+  private final transient MatchesEndpoint endpoint;
+  private final transient StaxSoapCodec codec;
+  private final transient MeterRegistry registry;
+  private final Set<String> trustedCallers;
+
+  FastSoapServlet(MatchesEndpoint endpoint, StaxSoapCodec codec, MeterRegistry registry, Set<String> trustedCallers) {
+    this.endpoint = endpoint;
+    this.codec = codec;
+    this.registry = registry;
+    this.trustedCallers = trustedCallers;
+  }
+
+  @Override
+  protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+    var sample = Timer.start(registry);
+    String operation = "unknown";
+    String outcome = "ok";
+    try {
+      Object request = codec.read(req.getInputStream(), !trustedCallers.contains(req.getRemoteAddr()));
+      operation = operation(request);
+      Object response = switch (request) {
+        case RecordResultRequest r -> endpoint.record(r);
+        case RecordResultByTeamsRequest r -> endpoint.recordByTeams(r);
+        case RecordResultsBatchRequest r -> endpoint.recordBatch(r);
+        default -> throw new StaxSoapCodec.ClientFault("No endpoint for " + operation, null);
+      };
+      resp.setContentType(CONTENT_TYPE);
+      codec.write(response, resp.getOutputStream());
+    } catch (StaxSoapCodec.ClientFault e) {
+      outcome = "fault";
+      fault(resp, true, e.getMessage());
+    } catch (RuntimeException e) {
+      outcome = "fault";
+      log.debug("SOAP {} failed", operation, e);
+      // as SoapFaultAnnotationExceptionResolver on /ws: the exception's @SoapFault picks code and reason
+      var annotation = AnnotationUtils.findAnnotation(e.getClass(), SoapFault.class);
+      boolean client = annotation != null
+          && (annotation.faultCode() == FaultCode.CLIENT || annotation.faultCode() == FaultCode.SENDER);
+      String reason = annotation != null && !annotation.faultStringOrReason().isEmpty()
+          ? annotation.faultStringOrReason() : e.getMessage();
+      fault(resp, client, reason);
+    } finally {
+      sample.stop(Timer.builder("pl.soap.requests")
+          .tag("path", "fast")
+          .tag("operation", operation)
+          .tag("outcome", outcome)
+          .register(registry));
+    }
+  }
+
+  private void fault(HttpServletResponse resp, boolean client, String reason) throws IOException {
+    if (resp.isCommitted()) return;
+    resp.resetBuffer();
+    resp.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+    resp.setContentType(CONTENT_TYPE);
+    codec.writeFault(client, reason, resp.getOutputStream());
+  }
+
+  // payload classes are named after their root element
+  private static String operation(Object payload) {
+    String name = payload.getClass().getSimpleName();
+    return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+  }
+}
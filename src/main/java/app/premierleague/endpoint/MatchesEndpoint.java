@@ -1,57 +1,100 @@
 package app.premierleague.endpoint;
 
+import app.premierleague.service.IdempotencyStore;
 import app.premierleague.service.MatchService;
+import app.premierleague.service.ResultSubmission;
+import app.premierleague.service.StandingsWriter;
 import app.premierleague.ws.RecordResultRequest;
 import app.premierleague.ws.RecordResultResponse;
 import app.premierleague.ws.RecordResultByTeamsRequest;
 import app.premierleague.ws.RecordResultByTeamsResponse;
+import app.premierleague.ws.RecordResultsBatchRequest;
+import app.premierleague.ws.RecordResultsBatchResponse;
 import org.springframework.ws.server.endpoint.annotation.Endpoint;
 import org.springframework.ws.server.endpoint.annotation.PayloadRoot;
 import org.springframework.ws.server.endpoint.annotation.RequestPayload;
 import org.springframework.ws.server.endpoint.annotation.ResponsePayload;
 
+import java.util.List;
+
 @Endpoint
 public class MatchesEndpoint {
 
   private static final String NS = "http://pltracker.com/match";
   private final MatchService matchService;
+  private final StandingsWriter standings;
+  private final IdempotencyStore idempotency;
 
-  public MatchesEndpoint(MatchService matchService) {
+  public MatchesEndpoint(MatchService matchService, StandingsWriter standings, IdempotencyStore idempotency) {
     this.matchService = matchService;
+    this.standings = standings;
+    this.idempotency = idempotency;
   }
 
   @PayloadRoot(namespace = NS, localPart = "recordResultRequest")
   @ResponsePayload
   public RecordResultResponse record(@RequestPayload RecordResultRequest req) {
-    var updated = matchService.recordResult(
-        req.getDbMatchId(),
-        req.getHomeScore(),
-        req.getAwayScore()
-    );
+    // same operation and request shape as REST, so a key is honoured across both transports
+    var submission = new ResultSubmission(req.getDbMatchId(), req.getHomeScore(), req.getAwayScore());
+    var updated = idempotency.execute("record", req.getIdempotencyKey(), submission,
+        () -> matchService.recordResult(submission.matchId(), submission.homeGoals(), submission.awayGoals(), null)
+    ).value();
     var resp = new RecordResultResponse();
     resp.setUpdatedId(updated.getId());
     resp.setStatus(updated.getStatus());
     resp.setHomeScore(updated.getHomeGoals());
     resp.setAwayScore(updated.getAwayGoals());
-    resp.setMessage("OK");
+    resp.setMessage(acknowledgement(req.isReadYourWrites()));
     return resp;
   }
 
   @PayloadRoot(namespace = NS, localPart = "recordResultByTeamsRequest")
   @ResponsePayload
   public RecordResultByTeamsResponse recordByTeams(@RequestPayload RecordResultByTeamsRequest req) {
-    var updated = matchService.recordResultByTeams(
-        (int) req.getHomeTeamId(),
-        (int) req.getAwayTeamId(),
-        req.getHomeScore(),
-        req.getAwayScore()
-    );
+    var fingerprint = List.of(req.getHomeTeamId(), req.getAwayTeamId(), req.getHomeScore(), req.getAwayScore());
+    var updated = idempotency.execute("record-by-teams", req.getIdempotencyKey(), fingerprint,
+        () -> matchService.recordResultByTeams(
+            (int) req.getHomeTeamId(),
+            (int) req.getAwayTeamId(),
+            req.getHomeScore(),
+            req.getAwayScore())
+    ).value();
     var resp = new RecordResultByTeamsResponse();
     resp.setUpdatedId(updated.getId());
     resp.setStatus(updated.getStatus());
     resp.setHomeScore(updated.getHomeGoals());
     resp.setAwayScore(updated.getAwayGoals());
-    resp.setMessage("OK");
+    resp.setMessage(acknowledgement(req.isReadYourWrites()));
     return resp;
   }
+
+  @PayloadRoot(namespace = NS, localPart = "recordResultsBatchRequest")
+  @ResponsePayload
+  public RecordResultsBatchResponse recordBatch(@RequestPayload RecordResultsBatchRequest req) {
+    var items = req.getResult().stream()
+        .map(r -> new ResultSubmission(r.getDbMatchId(), r.getHomeScore(), r.getAwayScore()))
+        .toList();
+    var resp = new RecordResultsBatchResponse();
+    var outcomes = idempotency.execute("record-batch", req.getIdempotencyKey(), items,
+        () -> matchService.recordResults(items)).value();
+    for (var o : outcomes) {
+      var item = new RecordResultsBatchResponse.Item();
+      item.setDbMatchId(o.matchId());
+      item.setOutcome(o.outcome());
+      item.setStatus(o.status());
+      item.setHomeScore(o.homeGoals());
+      item.setAwayScore(o.awayGoals());
+      item.setMessage(o.message());
+      resp.getItem().add(item);
+    }
+    if (Boolean.TRUE.equals(req.isReadYourWrites())) standings.awaitApplied();
+    return resp;
+  }
+
+  // Same contract as the REST X-Standings header: results are acknowledged before the table catches up
+  // unless the caller asks to wait for it.
+  private String acknowledgement(Boolean readYourWrites) {
+    if (!Boolean.TRUE.equals(readYourWrites) || standings.awaitApplied()) return "OK";
+    return "OK; standings update still pending";
+  }
 }
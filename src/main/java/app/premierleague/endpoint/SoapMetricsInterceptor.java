@@ -0,0 +1,71 @@
+package app.premierleague.endpoint;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ws.context.MessageContext;
+import org.springframework.ws.server.EndpointInterceptor;
+import org.springframework.ws.soap.SoapMessage;
+import org.springframework.ws.server.endpoint.support.PayloadRootUtils;
+import org.springframework.xml.transform.TransformerFactoryUtils;
+
+import javax.xml.namespace.QName;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+
+/**
+ * Times every SOAP call as pl.soap.requests, tagged by operation (payload root) and outcome
+ * (ok / fault / error); path=ws tells these apart from the FastSoapServlet timings. Everything under /ws shares one URI in http.server.requests, so this is the
+ * per-operation view. The span covers unmarshalling, the endpoint and marshalling; TimedMarshaller
+ * splits out the JAXB part.
+ */
+class SoapMetricsInterceptor implements EndpointInterceptor {
+
+  private static final String SAMPLE = SoapMetricsInterceptor.class.getName() + ".sample";
+  private static final String OPERATION = SoapMetricsInterceptor.class.getName() + ".operation";
+
+  private final MeterRegistry registry;
+  private final TransformerFactory transformers = TransformerFactoryUtils.newInstance();
+
+  SoapMetricsInterceptor(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  @Override
+  public boolean handleRequest(MessageContext ctx, Object endpoint) {
+    ctx.setProperty(SAMPLE, Timer.start(registry));
+    ctx.setProperty(OPERATION, operation(ctx));
+    return true;
+  }
+
+  @Override
+  public boolean handleResponse(MessageContext ctx, Object endpoint) {
+    return true;
+  }
+
+  @Override
+  public boolean handleFault(MessageContext ctx, Object endpoint) {
+    return true;
+  }
+
+  @Override
+  public void afterCompletion(MessageContext ctx, Object endpoint, Exception ex) {
+    if (!(ctx.getProperty(SAMPLE) instanceof Timer.Sample sample)) return;
+    String outcome = ex != null ? "error"
+        : ctx.hasResponse() && ctx.getResponse() instanceof SoapMessage m && m.getSoapBody().hasFault() ? "fault"
+        : "ok";
+    sample.stop(Timer.builder("pl.soap.requests")
+        .tag("path", "ws")
+        .tag("operation", (String) ctx.getProperty(OPERATION))
+        .tag("outcome", outcome)
+        .register(registry));
+  }
+
+  private String operation(MessageContext ctx) {
+    try {
+      QName root = PayloadRootUtils.getPayloadRootQName(ctx.getRequest().getPayloadSource(), transformers);
+      return root == null ? "unknown" : root.getLocalPart();
+    } catch (TransformerException e) {
+      return "unknown";
+    }
+  }
+}
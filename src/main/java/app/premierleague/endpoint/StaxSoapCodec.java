@@ -0,0 +1,195 @@
+package app.premierleague.endpoint;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBElement;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.validation.Schema;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * SOAP 1.1 envelope handling for the fast path, straight off the byte streams.
+ *
+ * The request is read with one StAX cursor: the envelope and any header are skipped, and JAXB unmarshals the
+ * body's first element from the same reader, validating against the schema as it goes when asked to. The
+ * response is written the same way. No SAAJ message or DOM is built. Marshallers and unmarshallers are expensive
+ * to create and not thread-safe, so they are pooled rather than made per call. The pool is a bounded queue, not a
+ * ThreadLocal, because requests may run on virtual threads.
+ */
+final class StaxSoapCodec {
+
+  static final String ENV_NS = "http://schemas.xmlsoap.org/soap/envelope/";
+
+  /** Bad envelope or payload; the caller's fault, answered as a Client fault. */
+  static final class ClientFault extends RuntimeException {
+    ClientFault(String message, Throwable cause) {
+      super(message, cause);
+    }
+  }
+
+  private final XMLInputFactory inputs = XMLInputFactory.newFactory();
+  private final XMLOutputFactory outputs = XMLOutputFactory.newFactory();
+  private final Pool<Unmarshaller> validating;
+  private final Pool<Unmarshaller> trusting;
+  private final Pool<Marshaller> marshallers;
+
+  StaxSoapCodec(JAXBContext context, Schema schema, int poolSize) {
+    inputs.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    inputs.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    validating = new Pool<>(poolSize, () -> {
+      var u = context.createUnmarshaller();
+      u.setSchema(schema);
+      return u;
+    });
+    trusting = new Pool<>(poolSize, context::createUnmarshaller);
+    marshallers = new Pool<>(poolSize, () -> {
+      var m = context.createMarshaller();
+      m.setProperty(Marshaller.JAXB_FRAGMENT, true);
+      return m;
+    });
+  }
+
+  /** Unmarshals the body payload; {@code validate} checks it against matches.xsd on the way. */
+  Object read(InputStream in, boolean validate) {
+    var pool = validate ? validating : trusting;
+    Unmarshaller u = pool.take();
+    XMLStreamReader r = null;
+    try {
+      r = inputs.createXMLStreamReader(in);
+      expect(r, r.nextTag(), "Envelope");
+      int event = r.nextTag();
+      if (event == XMLStreamConstants.START_ELEMENT && "Header".equals(r.getLocalName()) && ENV_NS.equals(r.getNamespaceURI())) {
+        skipElement(r);
+        event = r.nextTag();
+      }
+      expect(r, event, "Body");
+      if (r.nextTag() != XMLStreamConstants.START_ELEMENT) throw new ClientFault("Empty SOAP Body", null);
+      Object payload = u.unmarshal(r);
+      return payload instanceof JAXBElement<?> e ? e.getValue() : payload;
+    } catch (XMLStreamException | JAXBException e) {
+      throw new ClientFault(message(e), e);
+    } finally {
+      close(r);
+      pool.give(u);
+    }
+  }
+
+  void write(Object payload, OutputStream out) {
+    Marshaller m = marshallers.take();
+    try {
+      XMLStreamWriter w = open(out);
+      m.marshal(payload, w);
+      close(w);
+    } catch (XMLStreamException | JAXBException e) {
+      throw new IllegalStateException("Could not write SOAP response", e);
+    } finally {
+      marshallers.give(m);
+    }
+  }
+
+  void writeFault(boolean client, String reason, OutputStream out) {
+    try {
+      XMLStreamWriter w = open(out);
+      w.writeStartElement("SOAP-ENV", "Fault", ENV_NS);
+      w.writeStartElement("faultcode");
+      w.writeCharacters(client ? "SOAP-ENV:Client" : "SOAP-ENV:Server");
+      w.writeEndElement();
+      w.writeStartElement("faultstring");
+      w.writeAttribute("xml", "http://www.w3.org/XML/1998/namespace", "lang", "en");
+      w.writeCharacters(reason == null ? "" : reason);
+      w.writeEndElement();
+      w.writeEndElement();
+      close(w);
+    } catch (XMLStreamException e) {
+      throw new IllegalStateException("Could not write SOAP fault", e);
+    }
+  }
+
+  // Envelope and Body are left open for the payload; close() ends them
+  private XMLStreamWriter open(OutputStream out) throws XMLStreamException {
+    XMLStreamWriter w = outputs.createXMLStreamWriter(out, "UTF-8");
+    w.writeStartDocument("UTF-8", "1.0");
+    w.setPrefix("SOAP-ENV", ENV_NS);
+    w.writeStartElement("SOAP-ENV", "Envelope", ENV_NS);
+    w.writeNamespace("SOAP-ENV", ENV_NS);
+    w.writeStartElement("SOAP-ENV", "Body", ENV_NS);
+    return w;
+  }
+
+  private static void close(XMLStreamWriter w) throws XMLStreamException {
+    w.writeEndDocument();
+    w.flush();
+    w.close();
+  }
+
+  private static void expect(XMLStreamReader r, int event, String element) {
+    if (event != XMLStreamConstants.START_ELEMENT || !element.equals(r.getLocalName())) {
+      throw new ClientFault("Expected SOAP " + element, null);
+    }
+    if (!ENV_NS.equals(r.getNamespaceURI())) {
+      throw new ClientFault("Only SOAP 1.1 envelopes are accepted (got " + r.getNamespaceURI() + ")", null);
+    }
+  }
+
+  private static void skipElement(XMLStreamReader r) throws XMLStreamException {
+    for (int depth = 1; depth > 0; ) {
+      int event = r.next();
+      if (event == XMLStreamConstants.START_ELEMENT) depth++;
+      else if (event == XMLStreamConstants.END_ELEMENT) depth--;
+    }
+  }
+
+  private static void close(XMLStreamReader r) {
+    if (r == null) return;
+    try {
+      r.close();
+    } catch (XMLStreamException ignored) {
+      // nothing left to release
+    }
+  }
+
+  // schema violations surface as a linked SAXParseException, whose message is the useful one
+  private static String message(Exception e) {
+    Throwable t = e instanceof JAXBException j && j.getLinkedException() != null ? j.getLinkedException() : e;
+    return t.getMessage() != null ? t.getMessage() : t.toString();
+  }
+
+  private interface Factory<T> {
+    T create() throws JAXBException;
+  }
+
+  // Objects beyond the capacity are created on demand and dropped on return
+  private static final class Pool<T> {
+    private final ArrayBlockingQueue<T> idle;
+    private final Factory<T> factory;
+
+    Pool(int capacity, Factory<T> factory) {
+      this.idle = new ArrayBlockingQueue<>(capacity);
+      this.factory = factory;
+    }
+
+    T take() {
+      T t = idle.poll();
+      if (t != null) return t;
+      try {
+        return factory.create();
+      } catch (JAXBException e) {
+        throw new IllegalStateException("Could not create JAXB (un)marshaller", e);
+      }
+    }
+
+    void give(T t) {
+      idle.offer(t);
+    }
+  }
+}
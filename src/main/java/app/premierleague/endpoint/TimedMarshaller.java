@@ -0,0 +1,49 @@
+package app.premierleague.endpoint;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.oxm.XmlMappingException;
+import org.springframework.oxm.jaxb.Jaxb2Marshaller;
+import org.springframework.oxm.mime.MimeContainer;
+
+import javax.xml.transform.Result;
+import javax.xml.transform.Source;
+
+/** Jaxb2Marshaller that records pl.soap.jaxb timers, tagged by direction and payload type. */
+class TimedMarshaller extends Jaxb2Marshaller {
+
+  private final MeterRegistry registry;
+
+  TimedMarshaller(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  @Override
+  public Object unmarshal(Source source, MimeContainer mimeContainer) throws XmlMappingException {
+    var sample = Timer.start(registry);
+    Object payload = null;
+    try {
+      payload = super.unmarshal(source, mimeContainer);
+      return payload;
+    } finally {
+      sample.stop(timer("unmarshal", payload));
+    }
+  }
+
+  @Override
+  public void marshal(Object graph, Result result, MimeContainer mimeContainer) throws XmlMappingException {
+    var sample = Timer.start(registry);
+    try {
+      super.marshal(graph, result, mimeContainer);
+    } finally {
+      sample.stop(timer("marshal", graph));
+    }
+  }
+
+  private Timer timer(String direction, Object payload) {
+    return Timer.builder("pl.soap.jaxb")
+        .tag("direction", direction)
+        .tag("type", payload == null ? "none" : payload.getClass().getSimpleName())
+        .register(registry);
+  }
+}
@@ -1,22 +1,44 @@
 package app.premierleague.endpoint;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.web.servlet.ServletRegistrationBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.oxm.jaxb.Jaxb2Marshaller;
 import org.springframework.ws.config.annotation.EnableWs;
+import org.springframework.ws.config.annotation.WsConfigurerAdapter;
+import org.springframework.ws.server.EndpointInterceptor;
 import org.springframework.ws.transport.http.MessageDispatcherServlet;
 import org.springframework.ws.wsdl.wsdl11.DefaultWsdl11Definition;
 import org.springframework.xml.xsd.SimpleXsdSchema;
 import org.springframework.xml.xsd.XsdSchema;
 import org.springframework.core.io.ClassPathResource;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.validation.SchemaFactory;
+import java.util.HashSet;
+import java.util.List;
 
 @EnableWs
 @Configuration
-public class WsConfig {
+public class WsConfig extends WsConfigurerAdapter {
   private static final String NS = "http://pltracker.com/match";
 
+  private final MeterRegistry registry;
+
+  public WsConfig(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  @Override
+  public void addInterceptors(List<EndpointInterceptor> interceptors) {
+    interceptors.add(new SoapMetricsInterceptor(registry));
+  }
+
   @Bean
   public ServletRegistrationBean<MessageDispatcherServlet> messageDispatcherServlet(ApplicationContext ctx) {
     MessageDispatcherServlet servlet = new MessageDispatcherServlet();
@@ -42,8 +64,25 @@ public class WsConfig {
 
   @Bean
   public Jaxb2Marshaller marshaller() {
-    Jaxb2Marshaller m = new Jaxb2Marshaller();
+    Jaxb2Marshaller m = new TimedMarshaller(registry);
     m.setContextPath("app.premierleague.ws");
     return m;
   }
+
+  // /ws-fast: same operations as /ws through StAX and pooled (un)marshallers; see FastSoapServlet
+  @Bean
+  @ConditionalOnProperty(name = "pl.soap.fast.enabled", havingValue = "true", matchIfMissing = true)
+  public ServletRegistrationBean<FastSoapServlet> fastSoapServlet(
+      MatchesEndpoint endpoint, Jaxb2Marshaller marshaller, XsdSchema matchesSchema,
+      @Value("${pl.soap.fast.path:/ws-fast}") String path,
+      @Value("${pl.soap.fast.pool-size:64}") int poolSize,
+      @Value("${pl.soap.fast.trusted-callers:}") List<String> trustedCallers) throws SAXException {
+    var schema = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(matchesSchema.getSource());
+    var codec = new StaxSoapCodec(marshaller.getJaxbContext(), schema, poolSize);
+    var servlet = new FastSoapServlet(endpoint, codec, registry, new HashSet<>(trustedCallers));
+    var reg = new ServletRegistrationBean<>(servlet, path);
+    reg.setName("fastSoapServlet");
+    reg.setLoadOnStartup(1);
+    return reg;
+  }
 }
@@ -1,28 +1,180 @@
 package app.premierleague.repository;
 
 import app.premierleague.domain.Match;
+import app.premierleague.service.QueryCacheInvalidator;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface MatchRepository extends JpaRepository<Match, Long> {
+  // The JPQL finders go through the query cache (region "matches"). Hibernate invalidates it on entity
+  // writes and QueryCacheInvalidator on JDBC ones. The native queries below are not cached, since
+  // Hibernate cannot tell which tables they read.
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+      @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QueryCacheInvalidator.MATCHES)
+  })
   List<Match> findAllByOrderByKickoffAsc();
+
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+      @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QueryCacheInvalidator.MATCHES)
+  })
   List<Match> findByStatusOrderByKickoffAsc(String status);
+
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+      @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QueryCacheInvalidator.MATCHES)
+  })
   List<Match> findByHomeTeamIdOrderByKickoffAsc(Integer homeTeamId);
 
-  List<Match> findByHomeTeamIdAndAwayTeamIdAndStatusNotOrderByKickoffAsc(
-      Integer homeTeamId, Integer awayTeamId, String statusToExclude);
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+      @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QueryCacheInvalidator.MATCHES)
+  })
+  List<Match> findBySeasonIdAndStatusOrderByKickoffAscIdAsc(Integer seasonId, String status);
+
+  // Result writes lock the row so the standings delta is computed from the state actually replaced. The
+  // season comes from match_bookings (unpartitioned, indexed by match id), which lets the planner prune the
+  // row lookup to that season's partition; matching on id alone would probe every season's index.
+  @Query(value = """
+    SELECT * FROM matches
+    WHERE id = :id
+      AND season_id = (SELECT season_id FROM match_bookings WHERE match_id = :id LIMIT 1)
+    FOR UPDATE
+  """, nativeQuery = true)
+  Optional<Match> lockById(@Param("id") Long id);
+
+  @Query(value = """
+    SELECT m.* FROM matches m
+    JOIN (SELECT DISTINCT match_id, season_id FROM match_bookings WHERE match_id IN (:ids)) b
+      ON m.id = b.match_id AND m.season_id = b.season_id
+    ORDER BY m.id
+    FOR UPDATE OF m
+  """, nativeQuery = true)
+  List<Match> lockAllById(@Param("ids") Collection<Long> ids);
+
+  // The pairing's earliest unplayed fixture, locked, or nothing when another writer holds it. Only that one
+  // fixture is a candidate: SKIP LOCKED must not fall through to the next leg. The outer status check is
+  // re-evaluated on the locked row, so a fixture finished since the subquery ran is not returned either.
+  @Query(value = """
+    SELECT * FROM matches
+    WHERE (id, season_id) = (
+        SELECT id, season_id FROM matches
+        WHERE home_team_id = :home AND away_team_id = :away AND status <> 'FT'
+        ORDER BY kickoff, id
+        LIMIT 1)
+      AND status <> 'FT'
+    FOR UPDATE SKIP LOCKED
+  """, nativeQuery = true)
+  Optional<Match> lockNextFixture(@Param("home") Integer homeTeamId, @Param("away") Integer awayTeamId);
+
+  boolean existsByHomeTeamIdAndAwayTeamIdAndStatusNot(Integer homeTeamId, Integer awayTeamId, String status);
+
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+      @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QueryCacheInvalidator.MATCHES)
+  })
   List<Match> findByHomeTeamIdOrAwayTeamIdOrderByKickoffAsc(Integer homeTeamId, Integer awayTeamId);
 
+  // Team fixtures: one ordered index range per side (idx_matches_home_kickoff / idx_matches_away_kickoff,
+  // status carried in the index) glued with UNION ALL, instead of an OR that only the home side of
+  // idx_matches_teams could serve. Filtered and unfiltered lookups are separate statements so each
+  // keeps its own cached plan.
+  default List<Match> findTeamMatches(Integer teamId, String status) {
+    return status == null || status.isBlank()
+        ? findTeamMatches(teamId)
+        : findTeamMatchesByStatus(teamId, status);
+  }
+
+  @Query(value = """
+    (SELECT * FROM matches WHERE home_team_id = :teamId)
+    UNION ALL
+    (SELECT * FROM matches WHERE away_team_id = :teamId)
+    ORDER BY kickoff, id
+  """, nativeQuery = true)
+  List<Match> findTeamMatches(@Param("teamId") Integer teamId);
+
+  @Query(value = """
+    (SELECT * FROM matches WHERE home_team_id = :teamId AND status = :status)
+    UNION ALL
+    (SELECT * FROM matches WHERE away_team_id = :teamId AND status = :status)
+    ORDER BY kickoff, id
+  """, nativeQuery = true)
+  List<Match> findTeamMatchesByStatus(@Param("teamId") Integer teamId, @Param("status") String status);
+
+  // Keyset pages in (kickoff, id) order; backed by idx_matches_kickoff_id / idx_matches_status_kickoff_id.
+  // Only the first pages are cached: later cursors are whatever clients send, and an entry per cursor would
+  // fill the region with pages that are hardly ever asked for again.
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+      @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QueryCacheInvalidator.MATCHES)
+  })
+  List<Match> findByOrderByKickoffAscIdAsc(Limit limit);
+
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+      @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QueryCacheInvalidator.MATCHES)
+  })
+  List<Match> findByStatusOrderByKickoffAscIdAsc(String status, Limit limit);
+
   @Query("""
-    select m
-    from Match m
-    where (m.homeTeamId = :teamId or m.awayTeamId = :teamId)
-      and (:status is null or m.status = :status)
-    order by m.kickoff asc
+    select m from Match m
+    where m.kickoff > :kickoff or (m.kickoff = :kickoff and m.id > :id)
+    order by m.kickoff asc, m.id asc
   """)
-  List<Match> findTeamMatches(@Param("teamId") Integer teamId,
-                              @Param("status") String status);
+  List<Match> pageAfter(@Param("kickoff") Instant kickoff, @Param("id") long id, Limit limit);
+
+  @Query("""
+    select m from Match m
+    where m.status = :status
+      and (m.kickoff > :kickoff or (m.kickoff = :kickoff and m.id > :id))
+    order by m.kickoff asc, m.id asc
+  """)
+  List<Match> pageByStatusAfter(@Param("status") String status,
+                                @Param("kickoff") Instant kickoff, @Param("id") long id, Limit limit);
+
+  default List<Match> teamPageAfter(Integer teamId, String status, Instant kickoff, long id, int limit) {
+    return status == null || status.isBlank()
+        ? teamPageAfter(teamId, kickoff, id, limit)
+        : teamPageByStatusAfter(teamId, status, kickoff, id, limit);
+  }
+
+  // each side stops after :lim rows, so a page never reads more than 2 * :lim index entries
+  @Query(value = """
+    SELECT * FROM (
+      (SELECT * FROM matches WHERE home_team_id = :teamId AND (kickoff, id) > (:kickoff, :id)
+       ORDER BY kickoff, id LIMIT :lim)
+      UNION ALL
+      (SELECT * FROM matches WHERE away_team_id = :teamId AND (kickoff, id) > (:kickoff, :id)
+       ORDER BY kickoff, id LIMIT :lim)
+    ) t
+    ORDER BY kickoff, id
+    LIMIT :lim
+  """, nativeQuery = true)
+  List<Match> teamPageAfter(@Param("teamId") Integer teamId,
+                            @Param("kickoff") Instant kickoff, @Param("id") long id, @Param("lim") int limit);
+
+  @Query(value = """
+    SELECT * FROM (
+      (SELECT * FROM matches WHERE home_team_id = :teamId AND status = :status AND (kickoff, id) > (:kickoff, :id)
+       ORDER BY kickoff, id LIMIT :lim)
+      UNION ALL
+      (SELECT * FROM matches WHERE away_team_id = :teamId AND status = :status AND (kickoff, id) > (:kickoff, :id)
+       ORDER BY kickoff, id LIMIT :lim)
+    ) t
+    ORDER BY kickoff, id
+    LIMIT :lim
+  """, nativeQuery = true)
+  List<Match> teamPageByStatusAfter(@Param("teamId") Integer teamId, @Param("status") String status,
+                                    @Param("kickoff") Instant kickoff, @Param("id") long id, @Param("lim") int limit);
 }
@@ -1,9 +1,19 @@
 package app.premierleague.repository;
 
 import app.premierleague.domain.Standing;
+import app.premierleague.service.QueryCacheInvalidator;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import java.util.List;
 
-public interface StandingRepository extends JpaRepository<Standing, Integer> {
-  List<Standing> findAllByOrderByPointsDescGdDescGfDesc();
+public interface StandingRepository extends JpaRepository<Standing, Standing.Key> {
+  // Standing has no entity region: the standings table is written by JDBC, so rows are only cached as
+  // whole query results, which QueryCacheInvalidator can invalidate safely.
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+      @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = QueryCacheInvalidator.STANDINGS)
+  })
+  List<Standing> findBySeasonIdOrderByPointsDescGdDescGfDesc(Integer seasonId);
 }
@@ -0,0 +1,61 @@
+package app.premierleague.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * One lazily loaded value that writers invalidate, with concurrent misses sharing a single load.
+ *
+ * The value and an invalidation count live in one immutable state, swapped by compare-and-set. A load
+ * publishes its result only if the state is still the one it started from. So an invalidation at any point
+ * during the load, even between its last check and its write, leaves the cache empty for the next reader.
+ * That load's own waiters still get its result.
+ */
+final class CoalescingCache<T> {
+
+  private record State<T>(long generation, T value) {}
+
+  private final Supplier<T> loader;
+  private final AtomicReference<State<T>> state = new AtomicReference<>(new State<>(0, null));
+  private final AtomicReference<CompletableFuture<T>> loading = new AtomicReference<>();
+
+  CoalescingCache(Supplier<T> loader) {
+    this.loader = loader;
+  }
+
+  T get() {
+    T value = state.get().value();
+    return value != null ? value : load();
+  }
+
+  void invalidate() {
+    state.updateAndGet(s -> new State<>(s.generation() + 1, null));
+  }
+
+  private T load() {
+    var mine = new CompletableFuture<T>();
+    var inFlight = loading.compareAndExchange(null, mine);
+    if (inFlight != null) {
+      try {
+        return inFlight.join();
+      } catch (CompletionException e) {
+        throw e.getCause() instanceof RuntimeException re ? re : e;
+      }
+    }
+    try {
+      var from = state.get();
+      // a load that finished between our miss and taking the slot
+      T value = from.value() != null ? from.value() : loader.get();
+      state.compareAndSet(from, new State<>(from.generation(), value));
+      loading.set(null);
+      mine.complete(value);
+      return value;
+    } catch (RuntimeException e) {
+      loading.set(null);
+      mine.completeExceptionally(e);
+      throw e;
+    }
+  }
+}
@@ -0,0 +1,266 @@
+package app.premierleague.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Matches and standings as a columnar binary file, read through a memory map.
+ *
+ * Layout, little-endian: a 64-byte header (magic, format version, written-at, the fingerprint's match figures,
+ * row counts, the fingerprint's standings digest), then each column as one contiguous array. Matches: id and kickoff (epoch seconds) as longs, then
+ * season, home team, away team, home goals, away goals and status code as ints. Standings: competition,
+ * season, team, played, won, drawn, lost, gf, ga and points as ints. A reader maps the file once and reads
+ * cells straight out of the page cache, with no parsing and no per-row objects, so it needs no database.
+ *
+ * The fingerprint (match count, highest id, sum of versions, and a digest of every standings row) lets the
+ * service tell whether the file still describes the database before trusting it. The standings are covered
+ * too because they can move without the matches: a lagging write-behind queue, or an admin rebuild.
+ */
+public final class ColumnarSnapshot {
+
+  public static final List<String> STATUSES = List.of("SCHEDULED", "LIVE", "FT", "POSTPONED", "CANCELLED");
+  public static final int FT = STATUSES.indexOf("FT");
+
+  private static final long MAGIC = 0x50_4C_53_4E_41_50_00_01L; // "PLSNAP" 0 1
+  private static final int FORMAT = 2;
+  private static final int HEADER = 64;
+  private static final int MATCH_LONGS = 2, MATCH_INTS = 6, STANDING_INTS = 10;
+  // write buffer; at least HEADER
+  private static final int CHUNK = 1 << 16;
+
+  public record Fingerprint(long matches, long maxId, long versionSum, long standingsDigest) {}
+
+  /** 64-bit FNV-1a over standings rows, fed in competition, season, team order as the file stores them. */
+  public static final class StandingsDigest {
+    private long h = 0xcbf29ce484222325L;
+
+    public void add(int... row) {
+      for (int v : row) {
+        h ^= v;
+        h *= 0x100000001b3L;
+      }
+    }
+
+    public long value() { return h; }
+  }
+
+  private final Path path;
+  private final Instant writtenAt;
+  private final Fingerprint fingerprint;
+  private final Matches matches;
+  private final Standings standings;
+
+  private ColumnarSnapshot(Path path, Instant writtenAt, Fingerprint fingerprint, Matches matches, Standings standings) {
+    this.path = path;
+    this.writtenAt = writtenAt;
+    this.fingerprint = fingerprint;
+    this.matches = matches;
+    this.standings = standings;
+  }
+
+  public Path path() { return path; }
+  public Instant writtenAt() { return writtenAt; }
+  public Fingerprint fingerprint() { return fingerprint; }
+  public Matches matches() { return matches; }
+  public Standings standings() { return standings; }
+
+  /** Column views over the matches rows, in the order they were written. */
+  public static final class Matches {
+    private final int size;
+    private final LongBuffer id, kickoff;
+    private final IntBuffer season, home, away, homeGoals, awayGoals, status;
+
+    private Matches(ByteBuffer buf, int size) {
+      this.size = size;
+      id = longs(buf, size);
+      kickoff = longs(buf, size);
+      season = ints(buf, size);
+      home = ints(buf, size);
+      away = ints(buf, size);
+      homeGoals = ints(buf, size);
+      awayGoals = ints(buf, size);
+      status = ints(buf, size);
+    }
+
+    public int size() { return size; }
+    public long id(int row) { return id.get(row); }
+    public long kickoff(int row) { return kickoff.get(row); }
+    public int seasonId(int row) { return season.get(row); }
+    public int homeTeamId(int row) { return home.get(row); }
+    public int awayTeamId(int row) { return away.get(row); }
+    public int homeGoals(int row) { return homeGoals.get(row); }
+    public int awayGoals(int row) { return awayGoals.get(row); }
+    public int statusCode(int row) { return status.get(row); }
+    public String status(int row) { return STATUSES.get(status.get(row)); }
+  }
+
+  /** Column views over the standings rows. */
+  public static final class Standings {
+    private final int size;
+    private final IntBuffer competition, season, team, played, won, drawn, lost, gf, ga, points;
+
+    private Standings(ByteBuffer buf, int size) {
+      this.size = size;
+      competition = ints(buf, size);
+      season = ints(buf, size);
+      team = ints(buf, size);
+      played = ints(buf, size);
+      won = ints(buf, size);
+      drawn = ints(buf, size);
+      lost = ints(buf, size);
+      gf = ints(buf, size);
+      ga = ints(buf, size);
+      points = ints(buf, size);
+    }
+
+    public int size() { return size; }
+    public int competitionId(int row) { return competition.get(row); }
+    public int seasonId(int row) { return season.get(row); }
+    public int teamId(int row) { return team.get(row); }
+    public int played(int row) { return played.get(row); }
+    public int won(int row) { return won.get(row); }
+    public int drawn(int row) { return drawn.get(row); }
+    public int lost(int row) { return lost.get(row); }
+    public int gf(int row) { return gf.get(row); }
+    public int ga(int row) { return ga.get(row); }
+    public int points(int row) { return points.get(row); }
+  }
+
+  public static ColumnarSnapshot open(Path path) throws IOException {
+    MappedByteBuffer buf;
+    try (var ch = FileChannel.open(path, StandardOpenOption.READ)) {
+      buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+    }
+    buf.order(ByteOrder.LITTLE_ENDIAN);
+    if (buf.capacity() < HEADER || buf.getLong(0) != MAGIC) throw new IOException(path + " is not a snapshot file");
+    if (buf.getInt(8) != FORMAT) throw new IOException(path + " has snapshot format " + buf.getInt(8) + ", expected " + FORMAT);
+    var writtenAt = Instant.ofEpochMilli(buf.getLong(16));
+    var fingerprint = new Fingerprint(buf.getLong(24), buf.getLong(32), buf.getLong(40), buf.getLong(56));
+    int matchCount = buf.getInt(48), standingCount = buf.getInt(52);
+    long expected = HEADER + (long) matchCount * (MATCH_LONGS * 8 + MATCH_INTS * 4) + (long) standingCount * STANDING_INTS * 4;
+    if (buf.capacity() != expected) throw new IOException(path + " is truncated or corrupt");
+    buf.position(HEADER);
+    var matches = new Matches(buf, matchCount);
+    var standings = new Standings(buf, standingCount);
+    return new ColumnarSnapshot(path, writtenAt, fingerprint, matches, standings);
+  }
+
+  // a view of the next n values; advances buf past them
+  private static LongBuffer longs(ByteBuffer buf, int n) {
+    var view = buf.slice(buf.position(), n * 8).order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+    buf.position(buf.position() + n * 8);
+    return view;
+  }
+
+  private static IntBuffer ints(ByteBuffer buf, int n) {
+    var view = buf.slice(buf.position(), n * 4).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    buf.position(buf.position() + n * 4);
+    return view;
+  }
+
+  /** Collects rows into growable primitive columns and writes them out in one go. */
+  public static final class Writer {
+    private long[] id = new long[1024], kickoff = new long[1024];
+    private int[][] matchInts = new int[MATCH_INTS][1024];
+    private int[][] standingInts = new int[STANDING_INTS][64];
+    private int matchCount, standingCount;
+    private long maxId, versionSum;
+    private final StandingsDigest standings = new StandingsDigest();
+
+    public void match(long id, long version, int seasonId, int homeTeamId, int awayTeamId,
+                      int homeGoals, int awayGoals, String status, Instant kickoff) {
+      int code = STATUSES.indexOf(status);
+      if (code < 0) throw new IllegalArgumentException("Unknown status: " + status);
+      if (matchCount == this.id.length) {
+        this.id = Arrays.copyOf(this.id, matchCount * 2);
+        this.kickoff = Arrays.copyOf(this.kickoff, matchCount * 2);
+        for (int c = 0; c < MATCH_INTS; c++) matchInts[c] = Arrays.copyOf(matchInts[c], matchCount * 2);
+      }
+      int r = matchCount++;
+      this.id[r] = id;
+      this.kickoff[r] = kickoff.getEpochSecond();
+      int[] v = {seasonId, homeTeamId, awayTeamId, homeGoals, awayGoals, code};
+      for (int c = 0; c < MATCH_INTS; c++) matchInts[c][r] = v[c];
+      maxId = Math.max(maxId, id);
+      versionSum += version;
+    }
+
+    public void standing(int competitionId, int seasonId, int teamId, int played, int won, int drawn, int lost,
+                         int gf, int ga, int points) {
+      if (standingCount == standingInts[0].length) {
+        for (int c = 0; c < STANDING_INTS; c++) standingInts[c] = Arrays.copyOf(standingInts[c], standingCount * 2);
+      }
+      int r = standingCount++;
+      int[] v = {competitionId, seasonId, teamId, played, won, drawn, lost, gf, ga, points};
+      for (int c = 0; c < STANDING_INTS; c++) standingInts[c][r] = v[c];
+      standings.add(v);
+    }
+
+    public Fingerprint fingerprint() {
+      return new Fingerprint(matchCount, maxId, versionSum, standings.value());
+    }
+
+    public int matches() { return matchCount; }
+    public int standings() { return standingCount; }
+
+    /**
+     * Writes to a temporary file beside {@code path} and moves it into place, so readers never see half a file.
+     * The temporary file is written through the channel rather than a map: Windows will not move a file while a
+     * mapping of it is open, and a mapping only goes away when it is garbage collected.
+     */
+    public long writeTo(Path path, Instant writtenAt) throws IOException {
+      long size = HEADER + (long) matchCount * (MATCH_LONGS * 8 + MATCH_INTS * 4) + (long) standingCount * STANDING_INTS * 4;
+      var dir = path.toAbsolutePath().getParent();
+      Files.createDirectories(dir);
+      var tmp = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+      try {
+        try (var ch = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+          var buf = ByteBuffer.allocate(CHUNK).order(ByteOrder.LITTLE_ENDIAN);
+          buf.putLong(MAGIC).putInt(FORMAT).putInt(0).putLong(writtenAt.toEpochMilli());
+          buf.putLong(matchCount).putLong(maxId).putLong(versionSum);
+          buf.putInt(matchCount).putInt(standingCount);
+          buf.putLong(standings.value());
+          for (long[] col : new long[][] {id, kickoff}) {
+            for (int r = 0; r < matchCount; r++) {
+              if (buf.remaining() < 8) drain(ch, buf);
+              buf.putLong(col[r]);
+            }
+          }
+          for (int[] col : matchInts) putInts(ch, buf, col, matchCount);
+          for (int[] col : standingInts) putInts(ch, buf, col, standingCount);
+          drain(ch, buf);
+          ch.force(true);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(tmp);
+      }
+      return size;
+    }
+
+    private static void putInts(FileChannel ch, ByteBuffer buf, int[] col, int n) throws IOException {
+      for (int r = 0; r < n; r++) {
+        if (buf.remaining() < 4) drain(ch, buf);
+        buf.putInt(col[r]);
+      }
+    }
+
+    private static void drain(FileChannel ch, ByteBuffer buf) throws IOException {
+      buf.flip();
+      while (buf.hasRemaining()) ch.write(buf);
+      buf.clear();
+    }
+  }
+}
@@ -0,0 +1,81 @@
+package app.premierleague.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Long-polling reader over the match_events outbox behind GET /events.
+ *
+ * A poll that finds nothing past its cursor parks as a DeferredResult (no thread held). When an outbox
+ * write commits in this process, the parked polls are answered with one query per distinct cursor. They
+ * are not re-queried on a timer. Polls that hit their wait time return an empty page with the cursor
+ * unchanged.
+ */
+@Component
+public class EventFeed {
+
+  public record Page(List<MatchEvent> events, long next) {}
+
+  private record Waiter(long after, int limit, DeferredResult<Page> result) {}
+
+  private final MatchOutbox outbox;
+  private final Set<Waiter> waiters = ConcurrentHashMap.newKeySet();
+  private final AtomicBoolean wakePending = new AtomicBoolean();
+  private final ExecutorService worker = Executors.newVirtualThreadPerTaskExecutor();
+
+  public EventFeed(MatchOutbox outbox) {
+    this.outbox = outbox;
+  }
+
+  public DeferredResult<Page> poll(long after, int limit, Duration wait) {
+    var result = new DeferredResult<Page>(wait.toMillis(), new Page(List.of(), after));
+    var waiter = new Waiter(after, limit, result);
+    // park before reading, so a commit landing between the read and the park still wakes us
+    waiters.add(waiter);
+    result.onCompletion(() -> waiters.remove(waiter));
+
+    var events = outbox.after(after, limit);
+    if (!events.isEmpty() || wait.isZero()) result.setResult(page(events, after));
+    return result;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onAppended(OutboxAppendedEvent e) {
+    // a burst of commits while a wake is queued is served by that wake
+    if (!waiters.isEmpty() && wakePending.compareAndSet(false, true)) worker.execute(this::wake);
+  }
+
+  private void wake() {
+    wakePending.set(false);
+    Map<Long, List<Waiter>> byCursor = waiters.stream().collect(Collectors.groupingBy(Waiter::after));
+    byCursor.forEach((after, group) -> {
+      int limit = group.stream().mapToInt(Waiter::limit).max().orElse(1);
+      var events = outbox.after(after, limit);
+      if (events.isEmpty()) return;
+      for (Waiter w : group) {
+        w.result().setResult(page(events.size() > w.limit() ? events.subList(0, w.limit()) : events, after));
+      }
+    });
+  }
+
+  private static Page page(List<MatchEvent> events, long after) {
+    return new Page(events, events.isEmpty() ? after : events.get(events.size() - 1).id());
+  }
+
+  @PreDestroy
+  void shutdown() {
+    worker.shutdownNow();
+  }
+}
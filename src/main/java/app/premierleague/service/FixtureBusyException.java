@@ -0,0 +1,15 @@
+package app.premierleague.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.ws.soap.server.endpoint.annotation.FaultCode;
+import org.springframework.ws.soap.server.endpoint.annotation.SoapFault;
+
+/** Another request is recording a result for the same fixture right now; retry, ideally with an idempotency key. */
+@ResponseStatus(HttpStatus.CONFLICT)
+@SoapFault(faultCode = FaultCode.SERVER)
+public class FixtureBusyException extends RuntimeException {
+  public FixtureBusyException(int homeTeamId, int awayTeamId) {
+    super("The next fixture for home=" + homeTeamId + " away=" + awayTeamId + " is being updated by another request");
+  }
+}
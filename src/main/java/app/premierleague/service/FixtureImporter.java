@@ -0,0 +1,277 @@
+package app.premierleague.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams a fixture file (CSV or NDJSON) into matches.
+ *
+ * Rows are validated as they are read and valid ones are written straight into a COPY into a temp table,
+ * so nothing is buffered per file. A single INSERT ... SELECT ... ON CONFLICT DO NOTHING then moves them
+ * into matches; rows that collide with an existing fixture or a team's existing booking come back as errors.
+ */
+@Service
+public class FixtureImporter {
+
+  public enum Format {
+    CSV, NDJSON;
+
+    public static Format fromContentType(String contentType) {
+      String ct = contentType == null ? "" : contentType.toLowerCase();
+      if (ct.contains("ndjson") || ct.contains("jsonl")) return NDJSON;
+      if (ct.contains("csv")) return CSV;
+      throw new IllegalArgumentException("Unsupported fixture format: " + contentType + " (use text/csv or application/x-ndjson)");
+    }
+  }
+
+  public record RowError(long line, String reason) {}
+
+  public record Report(int received, int inserted, List<RowError> errors) {}
+
+  private record Row(long line, int home, int away, OffsetDateTime kickoff, String venue) {}
+
+  private static final int FLUSH_CHARS = 64 * 1024;
+
+  private final JdbcTemplate jdbc;
+  private final DataSource dataSource;
+  private final ObjectMapper mapper;
+  private final Seasons seasons;
+  private final Teams teams;
+  private final QueryCacheInvalidator queryCache;
+  private final ApplicationEventPublisher events;
+
+  public FixtureImporter(JdbcTemplate jdbc, DataSource dataSource, ObjectMapper mapper, Seasons seasons,
+                         Teams teams, QueryCacheInvalidator queryCache, ApplicationEventPublisher events) {
+    this.jdbc = jdbc;
+    this.dataSource = dataSource;
+    this.mapper = mapper;
+    this.seasons = seasons;
+    this.teams = teams;
+    this.queryCache = queryCache;
+    this.events = events;
+  }
+
+  @Transactional
+  public Report importFixtures(InputStream in, Format format) throws IOException, SQLException {
+    Set<Integer> teamIds = teams.current().byId().keySet();
+    List<RowError> errors = new ArrayList<>();
+    // the three keys the matches constraints enforce, so in-file clashes are caught with a useful line number
+    Map<String, Long> seen = new HashMap<>();
+
+    jdbc.execute("""
+        CREATE TEMP TABLE fixture_import (
+          line_no      BIGINT,
+          home_team_id INT,
+          away_team_id INT,
+          kickoff      TIMESTAMPTZ,
+          venue        VARCHAR(120),
+          season_id    INT
+        ) ON COMMIT DROP
+        """);
+
+    int received = 0, copied = 0;
+    Connection con = DataSourceUtils.getConnection(dataSource);
+    CopyIn copy = con.unwrap(PGConnection.class).getCopyAPI()
+        .copyIn("COPY fixture_import FROM STDIN WITH (FORMAT csv)");
+    try {
+      var reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+      var buf = new StringBuilder(FLUSH_CHARS + 256);
+      String line;
+      long lineNo = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNo++;
+        if (line.isBlank()) continue;
+        if (lineNo == 1 && format == Format.CSV && isHeader(line)) continue;
+        received++;
+
+        Row row;
+        try {
+          row = format == Format.CSV ? parseCsv(lineNo, line) : parseJson(lineNo, line);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+          errors.add(new RowError(lineNo, e.getMessage()));
+          continue;
+        } catch (IOException e) {
+          errors.add(new RowError(lineNo, "Malformed JSON: " + e.getMessage()));
+          continue;
+        }
+
+        String problem = validate(row, teamIds, seen);
+        if (problem != null) {
+          errors.add(new RowError(lineNo, problem));
+          continue;
+        }
+        int season;
+        try {
+          season = seasons.resolve(null, row.kickoff().toInstant()).id();
+        } catch (IllegalArgumentException e) {
+          errors.add(new RowError(lineNo, e.getMessage()));
+          continue;
+        }
+
+        buf.append(row.line()).append(',').append(row.home()).append(',').append(row.away()).append(',')
+            .append(row.kickoff()).append(',').append(csvField(row.venue())).append(',').append(season).append('\n');
+        copied++;
+        if (buf.length() >= FLUSH_CHARS) flush(copy, buf);
+      }
+      flush(copy, buf);
+      copy.endCopy();
+    } finally {
+      if (copy.isActive()) copy.cancelCopy();
+      DataSourceUtils.releaseConnection(con, dataSource);
+    }
+
+    if (copied > 0) {
+      // the new fixtures go to the outbox in the same statement, under the outbox ordering lock
+      jdbc.execute(MatchOutbox.LOCK);
+      // the booking trigger would fail the whole INSERT on a clash, so clashing rows are taken out first
+      List<Long> booked = jdbc.queryForList("""
+          DELETE FROM fixture_import f
+          WHERE EXISTS (
+            SELECT 1 FROM match_bookings b
+            WHERE b.kickoff = f.kickoff AND b.team_id IN (f.home_team_id, f.away_team_id)
+          )
+          RETURNING f.line_no
+          """, Long.class);
+      booked.forEach(l -> errors.add(new RowError(l, "Double-books a team")));
+      copied -= booked.size();
+      List<Long> rejected = jdbc.queryForList("""
+          WITH ins AS (
+            INSERT INTO matches (season_id, home_team_id, away_team_id, kickoff, venue)
+            SELECT season_id, home_team_id, away_team_id, kickoff, venue
+            FROM fixture_import
+            ORDER BY line_no
+            ON CONFLICT DO NOTHING
+            RETURNING id, home_team_id, away_team_id, kickoff, home_goals, away_goals, status
+          ),
+          ev AS (
+            INSERT INTO match_events (match_id, type, home_team_id, away_team_id, kickoff, home_goals, away_goals, status)
+            SELECT id, 'CREATED', home_team_id, away_team_id, kickoff, home_goals, away_goals, status
+            FROM ins
+            ORDER BY id
+          )
+          SELECT f.line_no
+          FROM fixture_import f
+          WHERE NOT EXISTS (
+            SELECT 1 FROM ins i
+            WHERE i.home_team_id = f.home_team_id
+              AND i.away_team_id = f.away_team_id
+              AND i.kickoff = f.kickoff
+          )
+          ORDER BY f.line_no
+          """, Long.class);
+      rejected.forEach(l -> errors.add(new RowError(l, "Clashes with an existing fixture")));
+      copied -= rejected.size();
+      queryCache.written(QueryCacheInvalidator.MATCHES);
+      if (copied > 0) events.publishEvent(new OutboxAppendedEvent());
+    }
+
+    errors.sort((a, b) -> Long.compare(a.line(), b.line()));
+    return new Report(received, copied, errors);
+  }
+
+  private static String validate(Row row, Set<Integer> teamIds, Map<String, Long> seen) {
+    if (!teamIds.contains(row.home())) return "Unknown home team: " + row.home();
+    if (!teamIds.contains(row.away())) return "Unknown away team: " + row.away();
+    if (row.home() == row.away()) return "home and away must differ";
+    if (row.venue() != null && row.venue().length() > 120) return "venue longer than 120 characters";
+
+    var at = row.kickoff().toInstant();
+    // a team is booked once per kickoff whichever side it plays, as match_bookings enforces
+    for (String key : List.of(row.home() + "-" + row.away() + "@" + at, "t" + row.home() + "@" + at, "t" + row.away() + "@" + at)) {
+      Long first = seen.putIfAbsent(key, row.line());
+      if (first != null) return "Clashes with line " + first;
+    }
+    return null;
+  }
+
+  private static boolean isHeader(String line) {
+    return !line.isEmpty() && !Character.isDigit(line.trim().charAt(0));
+  }
+
+  // home_team_id,away_team_id,kickoff[,venue]
+  private static Row parseCsv(long lineNo, String line) {
+    List<String> cols = splitCsv(line);
+    if (cols.size() < 3) throw new IllegalArgumentException("Expected home_team_id,away_team_id,kickoff[,venue]");
+    String venue = cols.size() > 3 && !cols.get(3).isBlank() ? cols.get(3).trim() : null;
+    return new Row(lineNo, parseId(cols.get(0), "home_team_id"), parseId(cols.get(1), "away_team_id"),
+        OffsetDateTime.parse(cols.get(2).trim()), venue);
+  }
+
+  // {"homeTeamId":1,"awayTeamId":2,"kickoff":"2025-08-16T14:00:00Z","venue":"..."}
+  private Row parseJson(long lineNo, String line) throws IOException {
+    JsonNode n = mapper.readTree(line);
+    if (n == null || !n.isObject()) throw new IllegalArgumentException("Expected a JSON object per line");
+    JsonNode venue = n.get("venue");
+    return new Row(lineNo, parseId(n.path("homeTeamId").asText(), "homeTeamId"),
+        parseId(n.path("awayTeamId").asText(), "awayTeamId"),
+        OffsetDateTime.parse(n.path("kickoff").asText()),
+        venue == null || venue.isNull() || venue.asText().isBlank() ? null : venue.asText());
+  }
+
+  private static int parseId(String s, String name) {
+    try {
+      return Integer.parseInt(s.trim());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Invalid " + name + ": " + s);
+    }
+  }
+
+  private static List<String> splitCsv(String line) {
+    List<String> out = new ArrayList<>();
+    var cur = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') { cur.append('"'); i++; }
+        else if (c == '"') quoted = false;
+        else cur.append(c);
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        out.add(cur.toString());
+        cur.setLength(0);
+      } else {
+        cur.append(c);
+      }
+    }
+    if (quoted) throw new IllegalArgumentException("Unterminated quoted field");
+    out.add(cur.toString());
+    return out;
+  }
+
+  private static String csvField(String s) {
+    if (s == null) return "";
+    return "\"" + s.replace("\"", "\"\"") + "\"";
+  }
+
+  private static void flush(CopyIn copy, StringBuilder buf) throws SQLException {
+    if (buf.isEmpty()) return;
+    byte[] bytes = buf.toString().getBytes(StandardCharsets.UTF_8);
+    copy.writeToCopy(bytes, 0, bytes.length);
+    buf.setLength(0);
+  }
+}
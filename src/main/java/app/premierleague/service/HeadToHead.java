@@ -0,0 +1,117 @@
+package app.premierleague.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One season's pairwise results as team x team matrices: points, goals and away goals each team took off each
+ * other. Teams get a slot on first sight and the matrices grow as needed.
+ *
+ * Each match's counted contribution is remembered, so applying a match again replaces what it counted before
+ * instead of adding to it; a reload racing a live update cannot count a result twice. Callers reading several
+ * cells at once hold the instance's monitor, which {@link #apply} also takes.
+ */
+final class HeadToHead {
+
+  private record Counted(int home, int away, int homeGoals, int awayGoals) {}
+
+  private final Map<Integer, Integer> slots = new HashMap<>();
+  private final Map<Long, Counted> counted = new HashMap<>();
+  private int capacity;
+  private int[] points, goals, awayGoals;
+  private int[] awayGoalsTotal;
+
+  HeadToHead(int capacity) {
+    this.capacity = Math.max(capacity, 2);
+    allocate(this.capacity);
+  }
+
+  /** Counts a match as it now stands; a match that is no longer FT is taken back out. */
+  synchronized void apply(long matchId, int homeTeamId, int awayTeamId, int homeGoals, int awayGoals, boolean finished) {
+    var was = finished
+        ? counted.put(matchId, new Counted(slotFor(homeTeamId), slotFor(awayTeamId), homeGoals, awayGoals))
+        : counted.remove(matchId);
+    if (was != null) add(was, -1);
+    if (finished) add(counted.get(matchId), 1);
+  }
+
+  /** An independent copy, e.g. to take results back out of without touching this one. */
+  synchronized HeadToHead copy() {
+    var c = new HeadToHead(capacity);
+    c.slots.putAll(slots);
+    c.counted.putAll(counted);
+    System.arraycopy(points, 0, c.points, 0, points.length);
+    System.arraycopy(goals, 0, c.goals, 0, goals.length);
+    System.arraycopy(awayGoals, 0, c.awayGoals, 0, awayGoals.length);
+    System.arraycopy(awayGoalsTotal, 0, c.awayGoalsTotal, 0, awayGoalsTotal.length);
+    return c;
+  }
+
+  /** The team's slot, or -1 if it has no counted results this season. */
+  int slot(int teamId) {
+    Integer s = slots.get(teamId);
+    return s == null ? -1 : s;
+  }
+
+  /** Points slot i took from its matches against slot j; 0 if either is -1. */
+  int points(int i, int j) {
+    return i < 0 || j < 0 ? 0 : points[i * capacity + j];
+  }
+
+  /** Goals slot i scored against slot j. */
+  int goals(int i, int j) {
+    return i < 0 || j < 0 ? 0 : goals[i * capacity + j];
+  }
+
+  /** Goals slot i scored away at slot j. */
+  int awayGoals(int i, int j) {
+    return i < 0 || j < 0 ? 0 : awayGoals[i * capacity + j];
+  }
+
+  int awayGoals(int i) {
+    return i < 0 ? 0 : awayGoalsTotal[i];
+  }
+
+  private void add(Counted c, int sign) {
+    int h = c.home(), a = c.away(), hg = c.homeGoals(), ag = c.awayGoals();
+    goals[h * capacity + a] += sign * hg;
+    goals[a * capacity + h] += sign * ag;
+    awayGoals[a * capacity + h] += sign * ag;
+    awayGoalsTotal[a] += sign * ag;
+    if (hg > ag) points[h * capacity + a] += sign * 3;
+    else if (hg < ag) points[a * capacity + h] += sign * 3;
+    else {
+      points[h * capacity + a] += sign;
+      points[a * capacity + h] += sign;
+    }
+  }
+
+  private int slotFor(int teamId) {
+    Integer s = slots.get(teamId);
+    if (s != null) return s;
+    int slot = slots.size();
+    if (slot == capacity) grow();
+    slots.put(teamId, slot);
+    return slot;
+  }
+
+  private void grow() {
+    int old = capacity;
+    int[] p = points, g = goals, ag = awayGoals, agt = awayGoalsTotal;
+    capacity = old * 2;
+    allocate(capacity);
+    for (int i = 0; i < old; i++) {
+      System.arraycopy(p, i * old, points, i * capacity, old);
+      System.arraycopy(g, i * old, goals, i * capacity, old);
+      System.arraycopy(ag, i * old, awayGoals, i * capacity, old);
+    }
+    System.arraycopy(agt, 0, awayGoalsTotal, 0, old);
+  }
+
+  private void allocate(int n) {
+    points = new int[n * n];
+    goals = new int[n * n];
+    awayGoals = new int[n * n];
+    awayGoalsTotal = new int[n];
+  }
+}
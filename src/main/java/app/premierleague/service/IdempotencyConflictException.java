@@ -0,0 +1,15 @@
+package app.premierleague.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.ws.soap.server.endpoint.annotation.FaultCode;
+import org.springframework.ws.soap.server.endpoint.annotation.SoapFault;
+
+/** An idempotency key was reused for a different request, or its first delivery is still running. */
+@ResponseStatus(HttpStatus.CONFLICT)
+@SoapFault(faultCode = FaultCode.CLIENT)
+public class IdempotencyConflictException extends RuntimeException {
+  public IdempotencyConflictException(String message) {
+    super(message);
+  }
+}
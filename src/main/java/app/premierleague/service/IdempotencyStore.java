@@ -0,0 +1,90 @@
+package app.premierleague.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of result writes by idempotency key, so a redelivered request is answered from memory
+ * without reaching the database.
+ *
+ * Keys are scoped by operation and tied to the request they first came with. Reusing a key for a different
+ * request is a conflict. A duplicate that arrives while the first delivery is still running waits for that
+ * delivery's answer. Only successes are kept: if the first delivery fails, its key is released so a retry runs
+ * for real. Entries live in process memory for pl.idempotency.ttl-minutes, so a retry must come back to the same
+ * instance within that window.
+ */
+@Component
+public class IdempotencyStore {
+
+  public record Result<T>(T value, boolean replayed) {}
+
+  private record Entry(Object request, CompletableFuture<Object> outcome) {}
+
+  private final Cache<String, Entry> entries;
+  private final long waitMillis;
+  private final MeterRegistry registry;
+
+  public IdempotencyStore(@Value("${pl.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                          @Value("${pl.idempotency.max-keys:100000}") long maxKeys,
+                          @Value("${pl.idempotency.wait-ms:5000}") long waitMillis,
+                          MeterRegistry registry) {
+    this.entries = Caffeine.newBuilder()
+        .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+        .maximumSize(maxKeys)
+        .build();
+    this.waitMillis = waitMillis;
+    this.registry = registry;
+  }
+
+  /**
+   * Runs {@code action} once per (operation, key). {@code request} identifies what was asked, compared with
+   * equals, and must be immutable. A null or blank key just runs the action.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> Result<T> execute(String operation, String key, Object request, Supplier<T> action) {
+    if (key == null || key.isBlank()) return new Result<>(action.get(), false);
+    if (key.length() > 200) throw new IllegalArgumentException("Idempotency key longer than 200 characters");
+
+    String id = operation + ':' + key;
+    var mine = new Entry(request, new CompletableFuture<>());
+    var first = entries.asMap().putIfAbsent(id, mine);
+    if (first == null) {
+      try {
+        T value = action.get();
+        mine.outcome().complete(value);
+        return new Result<>(value, false);
+      } catch (RuntimeException e) {
+        entries.asMap().remove(id, mine);
+        mine.outcome().completeExceptionally(e);
+        throw e;
+      }
+    }
+
+    if (!first.request().equals(request)) {
+      throw new IdempotencyConflictException("Idempotency key " + key + " was already used for a different " + operation + " request");
+    }
+    try {
+      var value = (T) first.outcome().get(waitMillis, TimeUnit.MILLISECONDS);
+      registry.counter("pl.idempotency.replays", "operation", operation).increment();
+      return new Result<>(value, true);
+    } catch (ExecutionException e) {
+      // the first delivery failed and gave the key back; this one runs for real
+      return execute(operation, key, request, action);
+    } catch (TimeoutException e) {
+      throw new IdempotencyConflictException("A request with idempotency key " + key + " is still being processed");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IdempotencyConflictException("Interrupted waiting for idempotency key " + key);
+    }
+  }
+}
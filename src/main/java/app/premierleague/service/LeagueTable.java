@@ -0,0 +1,130 @@
+package app.premierleague.service;
+
+import app.premierleague.db.ReadRouting;
+import app.premierleague.domain.Standing;
+import app.premierleague.repository.StandingRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The league table as an immutable, pre-serialized snapshot.
+ *
+ * Readers only dereference {@link #current()}; the snapshot is rebuilt from the standings of the default
+ * competition's current season once per committed change, ordered by {@link RankingEngine}, and swapped in
+ * atomically, so GET /table never touches the database. At startup the first snapshot can come from a
+ * {@link ColumnarSnapshot} file instead.
+ */
+@Component
+public class LeagueTable {
+
+  public record Snapshot(List<Standing> rows, byte[] json, String etag) {}
+
+  private final StandingRepository repo;
+  private final Seasons seasons;
+  private final RankingEngine ranking;
+  private final ObjectMapper mapper;
+  private final ApplicationEventPublisher events;
+  private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+  public LeagueTable(StandingRepository repo, Seasons seasons, RankingEngine ranking, ObjectMapper mapper,
+                     ApplicationEventPublisher events) {
+    this.repo = repo;
+    this.seasons = seasons;
+    this.ranking = ranking;
+    this.mapper = mapper;
+    this.events = events;
+  }
+
+  public Snapshot current() {
+    var snap = current.get();
+    return snap != null ? snap : refresh();
+  }
+
+  // after SnapshotArchive.warm, which may have published the table already
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    current();
+  }
+
+  /**
+   * Publishes the current season's table from the snapshot's standings rows, unless a table is loaded already;
+   * returns whether it did. The caller has checked that the snapshot matches the database.
+   */
+  synchronized boolean warm(ColumnarSnapshot snap) {
+    if (current.get() != null) return false;
+    var season = seasons.current(Seasons.DEFAULT_COMPETITION);
+    var st = snap.standings();
+    List<Standing> rows = new ArrayList<>();
+    for (int r = 0; r < st.size(); r++) {
+      if (st.seasonId(r) != season.id()) continue;
+      rows.add(new Standing(st.competitionId(r), st.seasonId(r), st.teamId(r), st.played(r), st.won(r),
+          st.drawn(r), st.lost(r), st.gf(r), st.ga(r), st.points(r)));
+    }
+    publish(season, rows);
+    return true;
+  }
+
+  // after commit, so the snapshot never shows a table that could still roll back
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStandingsChanged(StandingsChangedEvent e) {
+    refresh();
+  }
+
+  // writers serialize here so an older read can never overwrite a newer snapshot
+  synchronized Snapshot refresh() {
+    var season = seasons.current(Seasons.DEFAULT_COMPETITION);
+    return publish(season, ReadRouting.onPrimary(() -> repo.findBySeasonIdOrderByPointsDescGdDescGfDesc(season.id())));
+  }
+
+  private Snapshot publish(Season season, List<Standing> unranked) {
+    List<Standing> rows = List.copyOf(ranking.rank(season, unranked));
+    try {
+      byte[] json = mapper.writeValueAsBytes(rows);
+      var snap = new Snapshot(rows, json, "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+      var previous = current.getAndSet(snap);
+      if (previous != null) {
+        var changed = diff(previous.rows(), rows);
+        if (!changed.isEmpty()) events.publishEvent(new TableChangedEvent(changed));
+      }
+      return snap;
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not serialize league table", e);
+    }
+  }
+
+  private static List<TableChangedEvent.Row> diff(List<Standing> before, List<Standing> after) {
+    Map<Integer, Integer> oldPos = new HashMap<>();
+    Map<Integer, Standing> oldRow = new HashMap<>();
+    for (int i = 0; i < before.size(); i++) {
+      oldPos.put(before.get(i).getTeamId(), i);
+      oldRow.put(before.get(i).getTeamId(), before.get(i));
+    }
+    List<TableChangedEvent.Row> changed = new ArrayList<>();
+    for (int i = 0; i < after.size(); i++) {
+      Standing s = after.get(i);
+      Standing o = oldRow.get(s.getTeamId());
+      if (o == null || oldPos.get(s.getTeamId()) != i || !sameNumbers(o, s)) {
+        changed.add(new TableChangedEvent.Row(i + 1, s));
+      }
+    }
+    return changed;
+  }
+
+  private static boolean sameNumbers(Standing a, Standing b) {
+    return a.getPlayed() == b.getPlayed() && a.getWon() == b.getWon() && a.getDrawn() == b.getDrawn()
+        && a.getLost() == b.getLost() && a.getGf() == b.getGf() && a.getGa() == b.getGa()
+        && a.getGd() == b.getGd() && a.getPoints() == b.getPoints();
+  }
+}
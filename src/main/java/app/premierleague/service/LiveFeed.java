@@ -0,0 +1,142 @@
+package app.premierleague.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single broadcaster behind GET /stream.
+ *
+ * Each change is serialized once and the same frame is offered to every subscriber's bounded queue. An idle
+ * subscriber costs an emitter and an empty queue; nothing polls the database. A subscriber whose queue
+ * overflows is dropped rather than buffered without limit, and EventSource will reconnect it.
+ */
+@Component
+public class LiveFeed {
+
+  private record Frame(long id, String name, String data) {}
+
+  private static final Frame HEARTBEAT = new Frame(0, null, null);
+
+  private final ObjectMapper mapper;
+  private final int bufferSize;
+  private final Set<Client> clients = ConcurrentHashMap.newKeySet();
+  private final AtomicLong seq = new AtomicLong();
+  // a drain may block on a slow socket, so give each one its own cheap thread
+  private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+  private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(r -> {
+    var t = new Thread(r, "live-feed-heartbeat");
+    t.setDaemon(true);
+    return t;
+  });
+
+  public LiveFeed(ObjectMapper mapper,
+                  @Value("${pl.live.buffer-size:32}") int bufferSize,
+                  @Value("${pl.live.heartbeat-seconds:25}") long heartbeatSeconds) {
+    this.mapper = mapper;
+    this.bufferSize = bufferSize;
+    heartbeat.scheduleAtFixedRate(() -> broadcast(HEARTBEAT), heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+  }
+
+  public SseEmitter subscribe() {
+    var emitter = new SseEmitter(0L); // never times out; heartbeats find the dead ones
+    var client = new Client(emitter);
+    emitter.onCompletion(() -> clients.remove(client));
+    emitter.onTimeout(() -> clients.remove(client));
+    emitter.onError(e -> clients.remove(client));
+    clients.add(client);
+    return emitter;
+  }
+
+  public int subscribers() {
+    return clients.size();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onMatchChanged(MatchChangedEvent e) {
+    publish("match", e);
+  }
+
+  @EventListener
+  public void onTableChanged(TableChangedEvent e) {
+    publish("standings", e.rows());
+  }
+
+  void publish(String name, Object payload) {
+    if (clients.isEmpty()) return;
+    try {
+      broadcast(new Frame(seq.incrementAndGet(), name, mapper.writeValueAsString(payload)));
+    } catch (JsonProcessingException ex) {
+      throw new IllegalStateException("Could not serialize " + name + " event", ex);
+    }
+  }
+
+  private void broadcast(Frame frame) {
+    for (Client c : clients) c.offer(frame);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    heartbeat.shutdownNow();
+    clients.forEach(c -> c.emitter.complete());
+    sender.shutdown();
+  }
+
+  private final class Client {
+    final SseEmitter emitter;
+    final ArrayBlockingQueue<Frame> queue = new ArrayBlockingQueue<>(bufferSize);
+    final AtomicBoolean draining = new AtomicBoolean();
+
+    Client(SseEmitter emitter) {
+      this.emitter = emitter;
+    }
+
+    void offer(Frame f) {
+      if (!queue.offer(f)) {
+        drop(null);
+        return;
+      }
+      if (draining.compareAndSet(false, true)) sender.execute(this::drain);
+    }
+
+    void drain() {
+      try {
+        Frame f;
+        while ((f = queue.poll()) != null) {
+          if (f == HEARTBEAT) emitter.send(SseEmitter.event().comment("hb"));
+          else emitter.send(SseEmitter.event().id(Long.toString(f.id())).name(f.name()).data(f.data(), MediaType.APPLICATION_JSON));
+        }
+      } catch (IOException | IllegalStateException e) {
+        drop(e);
+        return;
+      } finally {
+        draining.set(false);
+      }
+      // a frame may have landed between the last poll and the reset above
+      if (!queue.isEmpty() && draining.compareAndSet(false, true)) sender.execute(this::drain);
+    }
+
+    void drop(Throwable cause) {
+      if (!clients.remove(this)) return;
+      if (cause == null) emitter.complete();
+      else emitter.completeWithError(cause);
+    }
+  }
+}
@@ -0,0 +1,29 @@
+package app.premierleague.service;
+
+import app.premierleague.domain.Match;
+
+import java.time.Instant;
+
+/**
+ * A match row MatchService wrote; published inside the writing transaction. The previous* fields are
+ * null for new rows.
+ */
+public record MatchChangedEvent(long id, Integer seasonId, int homeTeamId, int awayTeamId, Instant kickoff,
+                                int homeGoals, int awayGoals, String status,
+                                String previousStatus, Integer previousHomeGoals, Integer previousAwayGoals) {
+
+  /** The parts of a match an update can change, captured before the update. */
+  public record Prior(String status, int homeGoals, int awayGoals) {
+    public static Prior of(Match m) {
+      return new Prior(m.getStatus(), m.getHomeGoals(), m.getAwayGoals());
+    }
+  }
+
+  public static MatchChangedEvent of(Match m, Prior prior) {
+    return new MatchChangedEvent(m.getId(), m.getSeasonId(), m.getHomeTeamId(), m.getAwayTeamId(), m.getKickoff(),
+        m.getHomeGoals(), m.getAwayGoals(), m.getStatus(),
+        prior == null ? null : prior.status(),
+        prior == null ? null : prior.homeGoals(),
+        prior == null ? null : prior.awayGoals());
+  }
+}
@@ -0,0 +1,12 @@
+package app.premierleague.service;
+
+import java.time.Instant;
+
+/**
+ * One row of the match_events outbox. type is CREATED, STATUS (status changed, possibly with the score)
+ * or SCORE (score changed, same status); the previous* fields are null for CREATED.
+ */
+public record MatchEvent(long id, long matchId, String type, int homeTeamId, int awayTeamId, Instant kickoff,
+                         int homeGoals, int awayGoals, String status,
+                         String previousStatus, Integer previousHomeGoals, Integer previousAwayGoals,
+                         Instant recordedAt) {}
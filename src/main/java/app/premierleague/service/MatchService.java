@@ -2,23 +2,51 @@ package app.premierleague.service;
 
 import app.premierleague.domain.Match;
 import app.premierleague.repository.MatchRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.transaction.Transactional;
-import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class MatchService {
 
+  static final int MAX_BATCH = 1000;
+  private static final Set<String> STATUSES = Set.of("SCHEDULED", "LIVE", "FT", "POSTPONED", "CANCELLED");
+
   private final MatchRepository matchRepo;
-  private final JdbcTemplate jdbc;
+  private final StandingsWriter standings;
+  private final MatchOutbox outbox;
+  private final Seasons seasons;
+  private final ApplicationEventPublisher events;
 
-  public MatchService(MatchRepository matchRepo, JdbcTemplate jdbc) {
+  public MatchService(MatchRepository matchRepo, StandingsWriter standings, MatchOutbox outbox, Seasons seasons,
+                      ApplicationEventPublisher events) {
     this.matchRepo = matchRepo;
-    this.jdbc = jdbc;
+    this.standings = standings;
+    this.outbox = outbox;
+    this.seasons = seasons;
+    this.events = events;
   }
 
+  @Transactional
+  public Match createFixture(Match match) {
+    match.setSeasonId(seasons.resolve(match.getSeasonId(), match.getKickoff()).id());
+    match.setHomeGoals(0);
+    match.setAwayGoals(0);
+    match.setStatus("SCHEDULED");
+    Match saved = matchRepo.saveAndFlush(match);
+    publish(MatchChangedEvent.of(saved, null));
+    return saved;
+  }
+
+  @Timed("pl.fixtures.save-soap")
   @Transactional
   public Match saveFromSoap(long homeTeamId,
                             long awayTeamId,
@@ -29,6 +57,7 @@ public class MatchService {
                             String status) {
 
     Match m = new Match();
+    m.setSeasonId(seasons.resolve(null, kickoff.toInstant()).id());
     m.setHomeTeamId((int) homeTeamId);
     m.setAwayTeamId((int) awayTeamId);
     m.setKickoff(kickoff.toInstant());
@@ -38,10 +67,8 @@ public class MatchService {
     m.setStatus(status == null ? "SCHEDULED" : status);
 
     Match saved = matchRepo.saveAndFlush(m);
-
-    if ("FT".equalsIgnoreCase(saved.getStatus())) {
-      recomputeStandings();
-    }
+    standings.submit(ResultChange.of(saved, null));
+    publish(MatchChangedEvent.of(saved, null));
     return saved;
   }
 
@@ -50,101 +77,121 @@ public class MatchService {
     return matchRepo.findByHomeTeamIdOrderByKickoffAsc((int) homeTeamId);
   }
 
+  // expectedVersion (from If-Match) is optional; when given, the write only lands on that version of the row
+  @Timed("pl.results.record")
   @Transactional
-  public Match recordResult(long matchId, int homeGoals, int awayGoals) {
+  public Match recordResult(long matchId, int homeGoals, int awayGoals, Long expectedVersion) {
     if (homeGoals < 0 || awayGoals < 0) throw new IllegalArgumentException("Scores must be ≥ 0");
 
-    Match m = matchRepo.findById(matchId)
+    Match m = matchRepo.lockById(matchId)
         .orElseThrow(() -> new IllegalArgumentException("Match not found: " + matchId));
+    if (expectedVersion != null && !expectedVersion.equals(m.getVersion())) {
+      throw new StaleMatchException(matchId, expectedVersion, m.getVersion());
+    }
+    var before = ResultChange.counted(m);
+    var was = MatchChangedEvent.Prior.of(m);
 
     m.setHomeGoals(homeGoals);
     m.setAwayGoals(awayGoals);
     m.setStatus("FT");
 
     matchRepo.saveAndFlush(m);
-    recomputeStandings();
+    standings.submit(ResultChange.of(m, before));
+    publish(MatchChangedEvent.of(m, was));
     return m;
   }
 
+  // One transaction, one batched UPDATE flush and one standings write for the whole batch.
+  // Bad items are reported per item and skipped; they do not roll back the rest.
+  @Timed("pl.results.record-batch")
+  @Transactional
+  public List<SubmissionOutcome> recordResults(List<ResultSubmission> items) {
+    if (items.size() > MAX_BATCH) throw new IllegalArgumentException("At most " + MAX_BATCH + " results per batch");
+
+    Map<Long, Match> byId = new HashMap<>();
+    var ids = items.stream().map(ResultSubmission::matchId).distinct().toList();
+    if (!ids.isEmpty()) matchRepo.lockAllById(ids).forEach(m -> byId.put(m.getId(), m));
+
+    List<SubmissionOutcome> outcomes = new ArrayList<>(items.size());
+    List<ResultChange> changes = new ArrayList<>(items.size());
+    List<MatchChangedEvent> changed = new ArrayList<>(items.size());
+    for (ResultSubmission item : items) {
+      if (item.homeGoals() < 0 || item.awayGoals() < 0) {
+        outcomes.add(SubmissionOutcome.invalid(item, "Scores must be ≥ 0"));
+        continue;
+      }
+      Match m = byId.get(item.matchId());
+      if (m == null) {
+        outcomes.add(SubmissionOutcome.notFound(item));
+        continue;
+      }
+      var before = ResultChange.counted(m);
+      var was = MatchChangedEvent.Prior.of(m);
+      m.setHomeGoals(item.homeGoals());
+      m.setAwayGoals(item.awayGoals());
+      m.setStatus("FT");
+      changes.add(ResultChange.of(m, before));
+      changed.add(MatchChangedEvent.of(m, was));
+      outcomes.add(SubmissionOutcome.ok(m));
+    }
+
+    matchRepo.flush();
+    standings.submit(changes);
+    publish(changed);
+    return outcomes;
+  }
+
+  // Moving an FT match to POSTPONED/CANCELLED/SCHEDULED takes its result back out of the table.
+  @Transactional
+  public Match updateStatus(long matchId, String status) {
+    String next = status == null ? null : status.trim().toUpperCase();
+    if (!STATUSES.contains(next)) throw new IllegalArgumentException("Unknown status: " + status);
+
+    Match m = matchRepo.lockById(matchId)
+        .orElseThrow(() -> new IllegalArgumentException("Match not found: " + matchId));
+    var before = ResultChange.counted(m);
+    var was = MatchChangedEvent.Prior.of(m);
+
+    m.setStatus(next);
+
+    matchRepo.saveAndFlush(m);
+    standings.submit(ResultChange.of(m, before));
+    publish(MatchChangedEvent.of(m, was));
+    return m;
+  }
+
+@Timed("pl.results.record-by-teams")
 @Transactional
 public Match recordResultByTeams(int homeTeamId, int awayTeamId, int homeGoals, int awayGoals) {
   if (homeGoals < 0 || awayGoals < 0) throw new IllegalArgumentException("Scores must be ≥ 0");
 
-  var matches = matchRepo.findByHomeTeamIdAndAwayTeamIdAndStatusNotOrderByKickoffAsc(homeTeamId, awayTeamId, "FT");
-  if (matches.isEmpty()) {
-    throw new IllegalArgumentException(
-        "No pending fixture found for home=" + homeTeamId + " away=" + awayTeamId + " (all played or not scheduled)");
-  }
-  var m = matches.get(0);
+  // SKIP LOCKED: a concurrent writer on the same fixture makes this call fail fast instead of queueing
+  // behind it and then landing on the pairing's next fixture
+  var m = matchRepo.lockNextFixture(homeTeamId, awayTeamId).orElseThrow(() ->
+      matchRepo.existsByHomeTeamIdAndAwayTeamIdAndStatusNot(homeTeamId, awayTeamId, "FT")
+          ? new FixtureBusyException(homeTeamId, awayTeamId)
+          : new IllegalArgumentException(
+              "No pending fixture found for home=" + homeTeamId + " away=" + awayTeamId + " (all played or not scheduled)"));
+  var before = ResultChange.counted(m);
+  var was = MatchChangedEvent.Prior.of(m);
 
   m.setHomeGoals(homeGoals);
   m.setAwayGoals(awayGoals);
   m.setStatus("FT");
 
   matchRepo.saveAndFlush(m);
-  recomputeStandings();
+  standings.submit(ResultChange.of(m, before));
+  publish(MatchChangedEvent.of(m, was));
   return m;
 }
 
+  // Every write ends here: the outbox row joins the write's transaction, in-process listeners hear of it after commit.
+  private void publish(MatchChangedEvent change) {
+    publish(List.of(change));
+  }
 
-  @Transactional
-  public void recomputeStandings() {
-    jdbc.update("DELETE FROM standings");
-    String sql = """
-      WITH home AS (
-        SELECT home_team_id AS team_id,
-               COUNT(*) AS played,
-               SUM(CASE WHEN home_goals > away_goals THEN 1 ELSE 0 END) AS won,
-               SUM(CASE WHEN home_goals = away_goals THEN 1 ELSE 0 END) AS drawn,
-               SUM(CASE WHEN home_goals < away_goals THEN 1 ELSE 0 END) AS lost,
-               SUM(home_goals) AS gf,
-               SUM(away_goals) AS ga
-        FROM matches
-        WHERE status = 'FT'
-        GROUP BY home_team_id
-      ),
-      away AS (
-        SELECT away_team_id AS team_id,
-               COUNT(*) AS played,
-               SUM(CASE WHEN away_goals > home_goals THEN 1 ELSE 0 END) AS won,
-               SUM(CASE WHEN away_goals = home_goals THEN 1 ELSE 0 END) AS drawn,
-               SUM(CASE WHEN away_goals < home_goals THEN 1 ELSE 0 END) AS lost,
-               SUM(away_goals) AS gf,
-               SUM(home_goals) AS ga
-        FROM matches
-        WHERE status = 'FT'
-        GROUP BY away_team_id
-      ),
-      agg AS (
-        SELECT team_id,
-               SUM(played) AS played,
-               SUM(won) AS won,
-               SUM(drawn) AS drawn,
-               SUM(lost) AS lost,
-               SUM(gf) AS gf,
-               SUM(ga) AS ga
-        FROM (
-          SELECT * FROM home
-          UNION ALL
-          SELECT * FROM away
-        ) x
-        GROUP BY team_id
-      )
-      INSERT INTO standings (team_id, played, won, drawn, lost, gf, ga, gd, points, last_updated)
-      SELECT t.id AS team_id,
-             COALESCE(a.played, 0) AS played,
-             COALESCE(a.won, 0) AS won,
-             COALESCE(a.drawn, 0) AS drawn,
-             COALESCE(a.lost, 0) AS lost,
-             COALESCE(a.gf, 0) AS gf,
-             COALESCE(a.ga, 0) AS ga,
-             COALESCE(a.gf, 0) - COALESCE(a.ga, 0) AS gd,
-             COALESCE(a.won, 0) * 3 + COALESCE(a.drawn, 0) AS points,
-             NOW()
-      FROM teams t
-      LEFT JOIN agg a ON a.team_id = t.id
-      ORDER BY points DESC, (COALESCE(a.gf,0)-COALESCE(a.ga,0)) DESC, COALESCE(a.gf,0) DESC
-    """;
-    jdbc.update(sql);
+  private void publish(List<MatchChangedEvent> changes) {
+    outbox.append(changes);
+    changes.forEach(events::publishEvent);
   }
 }
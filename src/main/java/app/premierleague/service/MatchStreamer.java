@@ -0,0 +1,67 @@
+package app.premierleague.service;
+
+import app.premierleague.domain.Match;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Walks matches in (kickoff, id) order through a server-side cursor.
+ *
+ * The Postgres driver only honours the fetch size with autocommit off, hence the read-only transaction;
+ * at most {@link #FETCH_SIZE} rows are held in memory regardless of how many seasons are stored.
+ */
+@Service
+public class MatchStreamer {
+
+  static final int FETCH_SIZE = 500;
+
+  private final JdbcTemplate jdbc;
+  private final TransactionTemplate tx;
+
+  public MatchStreamer(DataSource dataSource, PlatformTransactionManager txManager) {
+    this.jdbc = new JdbcTemplate(dataSource);
+    this.jdbc.setFetchSize(FETCH_SIZE);
+    this.tx = new TransactionTemplate(txManager);
+    this.tx.setReadOnly(true);
+  }
+
+  /** status and teamId are optional filters; each row is handed to {@code sink} as it is read. */
+  public void stream(String status, Integer teamId, Consumer<Match> sink) {
+    // same shape as MatchRepository's team lookups: one index range per side, no OR
+    String where = status != null ? " AND status = ?" : "";
+    String sql = teamId == null
+        ? "SELECT * FROM matches WHERE TRUE" + where + " ORDER BY kickoff, id"
+        : "(SELECT * FROM matches WHERE home_team_id = ?" + where + ")"
+          + " UNION ALL (SELECT * FROM matches WHERE away_team_id = ?" + where + ")"
+          + " ORDER BY kickoff, id";
+    List<Object> args = new ArrayList<>();
+    if (teamId != null) args.add(teamId);
+    if (status != null) args.add(status);
+    if (teamId != null) {
+      args.add(teamId);
+      if (status != null) args.add(status);
+    }
+
+    tx.executeWithoutResult(s -> jdbc.query(sql, rs -> {
+      var m = new Match();
+      m.setId(rs.getLong("id"));
+      m.setSeasonId(rs.getInt("season_id"));
+      m.setHomeTeamId(rs.getInt("home_team_id"));
+      m.setAwayTeamId(rs.getInt("away_team_id"));
+      m.setKickoff(rs.getTimestamp("kickoff").toInstant());
+      m.setVenue(rs.getString("venue"));
+      m.setHomeGoals(rs.getInt("home_goals"));
+      m.setAwayGoals(rs.getInt("away_goals"));
+      m.setStatus(rs.getString("status"));
+      m.setVersion(rs.getLong("version"));
+      sink.accept(m);
+    }, args.toArray()));
+  }
+}
@@ -0,0 +1,4 @@
+package app.premierleague.service;
+
+/** Rows were added to match_events in the publishing transaction; listeners run after it commits. */
+public record OutboxAppendedEvent() {}
@@ -0,0 +1,142 @@
+package app.premierleague.service;
+
+import app.premierleague.db.ReadRouting;
+import app.premierleague.domain.Match;
+import app.premierleague.domain.Standing;
+import app.premierleague.repository.MatchRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Title, top-4 and relegation odds for the current season, from its FT results and SCHEDULED fixtures, with
+ * simulated tables ordered by the competition's {@link RankingRules}.
+ *
+ * A forecast is computed on first request with {@link SeasonSimulation} across all cores, and kept until a
+ * match write or standings change commits. Concurrent requests after that share one computation, and a
+ * computation overtaken by a commit is handed to its waiters but not kept.
+ */
+@Component
+public class Predictions {
+
+  public static final int TOP = 4;
+  public static final int RELEGATED = 3;
+
+  /** positions[i] is the probability of finishing (i + 1)th. */
+  public record TeamOdds(int teamId, String team, int points, double expectedPoints, double averagePosition,
+                         double title, double top4, double relegation, double[] positions) {}
+
+  public record Forecast(int seasonId, long simulations, int remainingFixtures, Instant computedAt,
+                         long elapsedMillis, List<TeamOdds> teams) {}
+
+  private final LeagueTable table;
+  private final MatchRepository matches;
+  private final Teams teams;
+  private final Seasons seasons;
+  private final RankingEngine ranking;
+  private final long simulations;
+  private final double homeAdvantage;
+  private final CoalescingCache<Forecast> cache = new CoalescingCache<>(this::compute);
+
+  public Predictions(LeagueTable table, MatchRepository matches, Teams teams, Seasons seasons,
+                     RankingEngine ranking,
+                     @Value("${pl.predictions.simulations:200000}") long simulations,
+                     @Value("${pl.predictions.home-advantage:1.15}") double homeAdvantage) {
+    this.table = table;
+    this.matches = matches;
+    this.teams = teams;
+    this.seasons = seasons;
+    this.ranking = ranking;
+    this.simulations = simulations;
+    this.homeAdvantage = homeAdvantage;
+  }
+
+  public Forecast current() {
+    return cache.get();
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onMatchChanged(MatchChangedEvent e) {
+    invalidate();
+  }
+
+  // standings are applied behind the result commit, so a forecast taken in between is dropped again here
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStandingsChanged(StandingsChangedEvent e) {
+    invalidate();
+  }
+
+  private void invalidate() {
+    cache.invalidate();
+  }
+
+  private Forecast compute() {
+    long t0 = System.nanoTime();
+    var current = seasons.current(Seasons.DEFAULT_COMPETITION);
+    int season = current.id();
+    List<Standing> rows = table.current().rows();
+    // head-to-head needs the results themselves, so the figures so far come from the FT matches, not the rows
+    List<Match> finished = ReadRouting.onPrimary(() -> matches.findBySeasonIdAndStatusOrderByKickoffAscIdAsc(season, "FT"));
+    List<Match> remaining = ReadRouting.onPrimary(() -> matches.findBySeasonIdAndStatusOrderByKickoffAscIdAsc(season, "SCHEDULED"));
+
+    // team id -> slot; teams with fixtures but no standings row yet start from zero
+    var slots = new LinkedHashMap<Integer, Integer>();
+    for (Standing s : rows) slots.putIfAbsent(s.getTeamId(), slots.size());
+    for (var list : List.of(finished, remaining)) {
+      for (Match m : list) {
+        slots.putIfAbsent(m.getHomeTeamId(), slots.size());
+        slots.putIfAbsent(m.getAwayTeamId(), slots.size());
+      }
+    }
+    int n = slots.size();
+    if (n == 0) return new Forecast(season, 0, 0, Instant.now(), 0, List.of());
+
+    var so = new SeasonSimulation.Played(n);
+    for (Match m : finished) {
+      so.result(slots.get(m.getHomeTeamId()), slots.get(m.getAwayTeamId()), m.getHomeGoals(), m.getAwayGoals());
+    }
+    int[] home = new int[remaining.size()], away = new int[remaining.size()];
+    for (int f = 0; f < home.length; f++) {
+      home[f] = slots.get(remaining.get(f).getHomeTeamId());
+      away[f] = slots.get(remaining.get(f).getAwayTeamId());
+    }
+
+    var sim = SeasonSimulation.of(so, home, away, homeAdvantage, ranking.rules(current.competition()));
+    var outcome = sim.run(simulations, ThreadLocalRandom.current().nextLong(), ForkJoinPool.commonPool());
+
+    var names = teams.current().byId();
+    double runs = outcome.simulations();
+    var odds = new ArrayList<TeamOdds>(n);
+    slots.forEach((teamId, t) -> {
+      double[] positions = new double[n];
+      double title = 0, top = 0, relegation = 0, averagePosition = 0;
+      for (int p = 0; p < n; p++) {
+        double share = outcome.finished(t, p) / runs;
+        positions[p] = round(share);
+        averagePosition += share * (p + 1);
+        if (p == 0) title += share;
+        if (p < TOP) top += share;
+        if (p >= n - RELEGATED) relegation += share;
+      }
+      var team = names.get(teamId);
+      odds.add(new TeamOdds(teamId, team != null ? team.getName() : "Team " + teamId, so.points(t),
+          round(outcome.pointsSum()[t] / runs), round(averagePosition),
+          round(title), round(top), round(relegation), positions));
+    });
+    odds.sort(Comparator.comparingDouble(TeamOdds::averagePosition));
+    long elapsedMillis = (System.nanoTime() - t0) / 1_000_000;
+    return new Forecast(season, outcome.simulations(), home.length, Instant.now(), elapsedMillis, List.copyOf(odds));
+  }
+
+  private static double round(double v) {
+    return Math.round(v * 10_000) / 10_000.0;
+  }
+}
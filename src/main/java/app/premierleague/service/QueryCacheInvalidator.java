@@ -0,0 +1,53 @@
+package app.premierleague.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tells Hibernate's second-level cache about writes made with JdbcTemplate, which it cannot see.
+ *
+ * It follows the protocol Hibernate uses for its own bulk updates. The table's update timestamp is
+ * pre-invalidated inside the writing transaction and invalidated again when it completes. Any cached query
+ * over that table that started before the commit is then treated as stale, even if it finishes and stores its
+ * result afterwards. Finders are cached in a query region named after their table, and that region is also
+ * emptied on completion so stale entries do not sit in memory.
+ */
+@Component
+public class QueryCacheInvalidator {
+
+  public static final String MATCHES = "matches";
+  public static final String STANDINGS = "standings";
+
+  private final EntityManager em;
+  private final CacheImplementor cache;
+
+  public QueryCacheInvalidator(EntityManager em, EntityManagerFactory emf) {
+    this.em = em;
+    this.cache = emf.unwrap(SessionFactoryImplementor.class).getCache();
+  }
+
+  /** Call from inside the transaction that ran the JDBC write. */
+  public void written(String table) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      cache.evictQueryRegion(table);
+      return;
+    }
+    String[] spaces = {table};
+    var session = em.unwrap(SharedSessionContractImplementor.class);
+    var timestamps = cache.getTimestampsCache();
+    timestamps.preInvalidate(spaces, session);
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        timestamps.invalidate(spaces, session);
+        cache.evictQueryRegion(table);
+      }
+    });
+  }
+}
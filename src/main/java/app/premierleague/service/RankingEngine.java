@@ -0,0 +1,159 @@
+package app.premierleague.service;
+
+import app.premierleague.db.ReadRouting;
+import app.premierleague.domain.Match;
+import app.premierleague.domain.Standing;
+import app.premierleague.domain.Team;
+import app.premierleague.repository.MatchRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Orders league tables by their competition's {@link RankingRules}, head-to-head included, without a query.
+ *
+ * Overall figures come from the caller's rows. Head-to-head figures come from a {@link HeadToHead} matrix per
+ * season, loaded from that season's FT matches on first use (or from a {@link ColumnarSnapshot} at startup)
+ * and then kept current from committed match writes, so re-ranking after a result is a sort of a few dozen indexes. A standings rebuild or season switch
+ * drops the matrices and they reload on next use.
+ */
+@Component
+public class RankingEngine {
+
+  /** The overall figures of one table line. */
+  public record Totals(int teamId, int points, int goalDifference, int goalsFor, int won) {
+    public static Totals of(Standing s) {
+      return new Totals(s.getTeamId(), s.getPoints(), s.getGd(), s.getGf(), s.getWon());
+    }
+  }
+
+  private final MatchRepository matches;
+  private final Teams teams;
+  private final Map<String, RankingRules> rules = new HashMap<>();
+  private final ConcurrentHashMap<Integer, HeadToHead> bySeason = new ConcurrentHashMap<>();
+
+  public RankingEngine(MatchRepository matches, Teams teams,
+                       @Value("${pl.ranking.rules:PL=PREMIER_LEAGUE}") List<String> rules) {
+    this.matches = matches;
+    this.teams = teams;
+    for (String r : rules) {
+      String[] kv = r.split("=", 2);
+      if (kv.length != 2) throw new IllegalArgumentException("pl.ranking.rules entries are COMPETITION=RULES, got " + r);
+      this.rules.put(kv[0].trim(), RankingRules.valueOf(kv[1].trim()));
+    }
+  }
+
+  public RankingRules rules(String competition) {
+    return rules.getOrDefault(competition, RankingRules.PREMIER_LEAGUE);
+  }
+
+  /** The season's standings rows in table order. */
+  public List<Standing> rank(Season season, List<Standing> rows) {
+    int[] order = order(season, rows.stream().map(Totals::of).toList());
+    var ranked = new ArrayList<Standing>(rows.size());
+    for (int i : order) ranked.add(rows.get(i));
+    return ranked;
+  }
+
+  /** Indexes into {@code lines} in table order. */
+  public int[] order(Season season, List<Totals> lines) {
+    return order(season, lines, bySeason.computeIfAbsent(season.id(), this::load));
+  }
+
+  /** As {@link #order(Season, List)}, with head-to-head figures from the given matrix, e.g. the season as of a past date. */
+  int[] order(Season season, List<Totals> lines, HeadToHead h2h) {
+    int n = lines.size();
+    int[] slot = new int[n], points = new int[n], gd = new int[n], gf = new int[n], won = new int[n], away = new int[n];
+    var names = teams.current().byId();
+    synchronized (h2h) {
+      for (int i = 0; i < n; i++) {
+        var t = lines.get(i);
+        slot[i] = h2h.slot(t.teamId());
+        points[i] = t.points();
+        gd[i] = t.goalDifference();
+        gf[i] = t.goalsFor();
+        won[i] = t.won();
+        away[i] = h2h.awayGoals(slot[i]);
+      }
+      var pairwise = new TableSorter.Pairwise() {
+        public int points(int i, int j) { return h2h.points(slot[i], slot[j]); }
+        public int goals(int i, int j) { return h2h.goals(slot[i], slot[j]); }
+        public int awayGoals(int i, int j) { return h2h.awayGoals(slot[i], slot[j]); }
+      };
+      return new TableSorter(rules(season.competition()).criteria())
+          .sort(n, points, gd, gf, won, away, pairwise, (idx, lo, hi) -> byName(idx, lo, hi, lines, names))
+          .clone();
+    }
+  }
+
+  /** A copy of the season's maintained matrix, loading it first if needed. */
+  HeadToHead headToHead(int seasonId) {
+    return bySeason.computeIfAbsent(seasonId, this::load).copy();
+  }
+
+  // waits for a load of the same season in progress, so a result committed during it is not lost
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onMatchChanged(MatchChangedEvent e) {
+    if (e.seasonId() == null) return;
+    bySeason.computeIfPresent(e.seasonId(), (id, h2h) -> {
+      h2h.apply(e.id(), e.homeTeamId(), e.awayTeamId(), e.homeGoals(), e.awayGoals(), "FT".equals(e.status()));
+      return h2h;
+    });
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStandingsChanged(StandingsChangedEvent e) {
+    if (e.teamIds().isEmpty()) bySeason.clear();
+  }
+
+  /**
+   * Builds the matrix of every season in the snapshot that is not loaded yet, from its FT rows; returns how
+   * many were added. The caller has checked that the snapshot matches the database.
+   */
+  public int preload(ColumnarSnapshot snap) {
+    var m = snap.matches();
+    var built = new HashMap<Integer, HeadToHead>();
+    int capacity = teams.current().rows().size();
+    for (int r = 0; r < m.size(); r++) {
+      if (m.statusCode(r) != ColumnarSnapshot.FT) continue;
+      built.computeIfAbsent(m.seasonId(r), id -> new HeadToHead(capacity))
+          .apply(m.id(r), m.homeTeamId(r), m.awayTeamId(r), m.homeGoals(r), m.awayGoals(r), true);
+    }
+    int added = 0;
+    for (var e : built.entrySet()) {
+      if (bySeason.putIfAbsent(e.getKey(), e.getValue()) == null) added++;
+    }
+    return added;
+  }
+
+  private HeadToHead load(int seasonId) {
+    var h2h = new HeadToHead(teams.current().rows().size());
+    for (Match m : ReadRouting.onPrimary(() -> matches.findBySeasonIdAndStatusOrderByKickoffAscIdAsc(seasonId, "FT"))) {
+      h2h.apply(m.getId(), m.getHomeTeamId(), m.getAwayTeamId(), m.getHomeGoals(), m.getAwayGoals(), true);
+    }
+    return h2h;
+  }
+
+  private static void byName(int[] idx, int lo, int hi, List<Totals> lines, Map<Integer, Team> names) {
+    for (int p = lo + 1; p < hi; p++) {
+      int x = idx[p];
+      int q = p - 1;
+      while (q >= lo && name(idx[q], lines, names).compareTo(name(x, lines, names)) > 0) {
+        idx[q + 1] = idx[q];
+        q--;
+      }
+      idx[q + 1] = x;
+    }
+  }
+
+  private static String name(int i, List<Totals> lines, Map<Integer, Team> names) {
+    var team = names.get(lines.get(i).teamId());
+    return team != null ? team.getName() : "Team " + lines.get(i).teamId();
+  }
+}
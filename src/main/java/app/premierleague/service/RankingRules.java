@@ -0,0 +1,47 @@
+package app.premierleague.service;
+
+import java.util.List;
+
+/**
+ * How a competition orders its table: criteria applied in turn to teams still level after the ones before.
+ *
+ * Head-to-head criteria score a mini-league of only the matches among the teams still level. When one of them
+ * splits a group but leaves a smaller group level, the head-to-head criteria start over on that smaller group,
+ * as UEFA-style rules require. Teams level after every criterion are ordered by name, or drawn at random in a
+ * forecast's simulated tables. Competitions pick a preset in pl.ranking.rules; a new rule set is a new constant
+ * here.
+ */
+public enum RankingRules {
+
+  /** Premier League: points, goal difference, goals scored, then head-to-head points and away goals. */
+  PREMIER_LEAGUE(Criterion.POINTS, Criterion.GOAL_DIFFERENCE, Criterion.GOALS_FOR,
+      Criterion.H2H_POINTS, Criterion.H2H_AWAY_GOALS_FOR),
+
+  /** La Liga / Serie A / UEFA group style: head-to-head before overall goal difference. */
+  HEAD_TO_HEAD_FIRST(Criterion.POINTS, Criterion.H2H_POINTS, Criterion.H2H_GOAL_DIFFERENCE,
+      Criterion.H2H_GOALS_FOR, Criterion.GOAL_DIFFERENCE, Criterion.GOALS_FOR, Criterion.WINS),
+
+  /** What the table did before head-to-head existed: points, goal difference, goals scored. */
+  GOALS_ONLY(Criterion.POINTS, Criterion.GOAL_DIFFERENCE, Criterion.GOALS_FOR);
+
+  public enum Criterion {
+    POINTS(false), GOAL_DIFFERENCE(false), GOALS_FOR(false), WINS(false), AWAY_GOALS_FOR(false),
+    H2H_POINTS(true), H2H_GOAL_DIFFERENCE(true), H2H_GOALS_FOR(true), H2H_AWAY_GOALS_FOR(true);
+
+    final boolean headToHead;
+
+    Criterion(boolean headToHead) {
+      this.headToHead = headToHead;
+    }
+  }
+
+  private final List<Criterion> criteria;
+
+  RankingRules(Criterion... criteria) {
+    this.criteria = List.of(criteria);
+  }
+
+  public List<Criterion> criteria() {
+    return criteria;
+  }
+}
@@ -0,0 +1,28 @@
+package app.premierleague.service;
+
+import app.premierleague.domain.Match;
+
+import java.time.Instant;
+
+/**
+ * What a single write did to a match's contribution to the table.
+ * {@code before}/{@code after} are null when the match was/is not counted (anything but FT).
+ */
+public record ResultChange(int seasonId, int homeTeamId, int awayTeamId, Instant kickoff, Score before, Score after) {
+
+  public record Score(int home, int away) {}
+
+  /** The score this match currently contributes to the table, or null if it does not count. */
+  public static Score counted(Match m) {
+    if (!"FT".equalsIgnoreCase(m.getStatus())) return null;
+    return new Score(m.getHomeGoals(), m.getAwayGoals());
+  }
+
+  public static ResultChange of(Match m, Score before) {
+    return new ResultChange(m.getSeasonId(), m.getHomeTeamId(), m.getAwayTeamId(), m.getKickoff(), before, counted(m));
+  }
+
+  public boolean isNoop() {
+    return before == null ? after == null : before.equals(after);
+  }
+}
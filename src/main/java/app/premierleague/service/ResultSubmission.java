@@ -0,0 +1,4 @@
+package app.premierleague.service;
+
+/** One result in a batch submission. */
+public record ResultSubmission(long matchId, int homeGoals, int awayGoals) {}
@@ -0,0 +1,15 @@
+package app.premierleague.service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/** One season of one competition; its matches live in their own partition (matches_s{id}). */
+public record Season(int id, int competitionId, String competition, String label,
+                     LocalDate startsOn, LocalDate endsOn, boolean current) {
+
+  public boolean covers(Instant kickoff) {
+    LocalDate day = kickoff.atOffset(ZoneOffset.UTC).toLocalDate();
+    return !day.isBefore(startsOn) && !day.isAfter(endsOn);
+  }
+}
@@ -0,0 +1,290 @@
+package app.premierleague.service;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Plays out the rest of a season many times over and counts where each team finishes.
+ *
+ * Everything is primitive arrays indexed by team slot 0..n-1: the table is five int arrays (points, goal
+ * difference, goals for, wins, away goals) copied per iteration, and each remaining fixture is a pair of slots
+ * plus the e^-lambda of its two Poisson goal counts. Each simulated table is ordered by the competition's
+ * {@link RankingRules} through a {@link TableSorter}; head-to-head figures are only assembled, from the results
+ * so far plus that iteration's scores, when a group of level teams reaches a head-to-head criterion, and teams
+ * level on every criterion are shuffled. Work is split with fork-join; each leaf has its own scratch arrays and
+ * a SplittableRandom split off its parent, so there is no shared state until the counts are summed.
+ */
+public final class SeasonSimulation {
+
+  // simulations per fork-join leaf; large enough that split and merge costs vanish
+  static final int LEAF = 4096;
+  // shrink each team's scoring rates towards the league mean as if it had played this many average matches
+  static final double PRIOR_MATCHES = 5;
+  static final double DEFAULT_GOALS_PER_MATCH = 1.4;
+
+  /** How often each team finished in each position, and the points it finished on. */
+  public record Outcome(int teams, long simulations, long[] positionCounts, long[] pointsSum) {
+
+    public long finished(int team, int position) {
+      return positionCounts[team * teams + position];
+    }
+  }
+
+  /** The season so far: overall and head-to-head figures per slot, from the results added to it. */
+  public static final class Played {
+    final int teams;
+    final int[] played, points, gf, ga, won, awayGoals;
+    // team x team, what the row slot took off the column slot
+    final int[] h2hPoints, h2hGoals, h2hAwayGoals;
+
+    public Played(int teams) {
+      this.teams = teams;
+      played = new int[teams];
+      points = new int[teams];
+      gf = new int[teams];
+      ga = new int[teams];
+      won = new int[teams];
+      awayGoals = new int[teams];
+      h2hPoints = new int[teams * teams];
+      h2hGoals = new int[teams * teams];
+      h2hAwayGoals = new int[teams * teams];
+    }
+
+    private Played(Played so) {
+      teams = so.teams;
+      played = so.played.clone();
+      points = so.points.clone();
+      gf = so.gf.clone();
+      ga = so.ga.clone();
+      won = so.won.clone();
+      awayGoals = so.awayGoals.clone();
+      h2hPoints = so.h2hPoints.clone();
+      h2hGoals = so.h2hGoals.clone();
+      h2hAwayGoals = so.h2hAwayGoals.clone();
+    }
+
+    /** Counts one finished match between two slots. */
+    public Played result(int home, int away, int homeGoals, int awayGoals) {
+      played[home]++;
+      played[away]++;
+      gf[home] += homeGoals;
+      gf[away] += awayGoals;
+      ga[home] += awayGoals;
+      ga[away] += homeGoals;
+      this.awayGoals[away] += awayGoals;
+      if (homeGoals > awayGoals) {
+        points[home] += 3;
+        won[home]++;
+      } else if (homeGoals < awayGoals) {
+        points[away] += 3;
+        won[away]++;
+      } else {
+        points[home]++;
+        points[away]++;
+      }
+      headToHead(teams, home, away, homeGoals, awayGoals, h2hPoints, h2hGoals, h2hAwayGoals);
+      return this;
+    }
+
+    public int points(int slot) {
+      return points[slot];
+    }
+  }
+
+  private final int teams;
+  private final Played base;
+  private final int[] gd;
+  private final int[] home, away;
+  private final double[] homeExp, awayExp;
+  private final RankingRules rules;
+
+  private SeasonSimulation(Played base, int[] gd, int[] home, int[] away, double[] homeExp, double[] awayExp,
+                           RankingRules rules) {
+    this.teams = base.teams;
+    this.base = base;
+    this.gd = gd;
+    this.home = home;
+    this.away = away;
+    this.homeExp = homeExp;
+    this.awayExp = awayExp;
+    this.rules = rules;
+  }
+
+  /**
+   * Builds the model from the season so far and the remaining fixtures as home and away slots. A team's
+   * expected goals in a fixture are the league mean scaled by its attack, the opponent's defence and the home
+   * advantage (applied to the home side, divided out of the away).
+   */
+  public static SeasonSimulation of(Played so, int[] home, int[] away, double homeAdvantage, RankingRules rules) {
+    int n = so.teams;
+    long goals = 0, games = 0;
+    for (int t = 0; t < n; t++) {
+      goals += so.gf[t];
+      games += so.played[t];
+    }
+    double mean = games == 0 || goals == 0 ? DEFAULT_GOALS_PER_MATCH : (double) goals / games;
+    double[] attack = new double[n], defence = new double[n];
+    for (int t = 0; t < n; t++) {
+      attack[t] = (so.gf[t] + PRIOR_MATCHES * mean) / (so.played[t] + PRIOR_MATCHES) / mean;
+      defence[t] = (so.ga[t] + PRIOR_MATCHES * mean) / (so.played[t] + PRIOR_MATCHES) / mean;
+    }
+    double[] homeExp = new double[home.length], awayExp = new double[home.length];
+    for (int f = 0; f < home.length; f++) {
+      int h = home[f], a = away[f];
+      homeExp[f] = Math.exp(-mean * attack[h] * defence[a] * homeAdvantage);
+      awayExp[f] = Math.exp(-mean * attack[a] * defence[h] / homeAdvantage);
+    }
+    int[] gd = new int[n];
+    for (int t = 0; t < n; t++) gd[t] = so.gf[t] - so.ga[t];
+    return new SeasonSimulation(new Played(so), gd, home.clone(), away.clone(), homeExp, awayExp, rules);
+  }
+
+  public int teams() {
+    return teams;
+  }
+
+  public int remainingFixtures() {
+    return home.length;
+  }
+
+  public Outcome run(long simulations, long seed, ForkJoinPool pool) {
+    if (simulations < 1) throw new IllegalArgumentException("simulations must be >= 1");
+    return pool.invoke(new Chunk(simulations, new SplittableRandom(seed)));
+  }
+
+  private final class Chunk extends RecursiveTask<Outcome> {
+    private final long count;
+    private final SplittableRandom rnd;
+
+    Chunk(long count, SplittableRandom rnd) {
+      this.count = count;
+      this.rnd = rnd;
+    }
+
+    @Override
+    protected Outcome compute() {
+      if (count <= LEAF) return new Leaf(rnd).simulate(count);
+      long half = count / 2;
+      var left = new Chunk(half, rnd.split());
+      left.fork();
+      var right = new Chunk(count - half, rnd).compute();
+      return merge(left.join(), right);
+    }
+  }
+
+  // One leaf's scratch state. The head-to-head matrices of an iteration are built on first use, since most
+  // tables only need them for a pair or two of teams level on points, if at all.
+  private final class Leaf implements TableSorter.Pairwise, TableSorter.Unresolved {
+    private final SplittableRandom rnd;
+    private final int n = teams;
+    private final int[] pts = new int[n], diff = new int[n], scored = new int[n], won = new int[n], awayGoals = new int[n];
+    private final int[] homeGoals = new int[home.length], awayGoalsOf = new int[home.length];
+    private final int[] h2hPoints = new int[n * n], h2hGoals = new int[n * n], h2hAwayGoals = new int[n * n];
+    private final TableSorter sorter = new TableSorter(rules.criteria());
+    private boolean h2hBuilt;
+
+    Leaf(SplittableRandom rnd) {
+      this.rnd = rnd;
+    }
+
+    Outcome simulate(long count) {
+      long[] positions = new long[n * n];
+      long[] pointsSum = new long[n];
+      for (long s = 0; s < count; s++) {
+        System.arraycopy(base.points, 0, pts, 0, n);
+        System.arraycopy(gd, 0, diff, 0, n);
+        System.arraycopy(base.gf, 0, scored, 0, n);
+        System.arraycopy(base.won, 0, won, 0, n);
+        System.arraycopy(base.awayGoals, 0, awayGoals, 0, n);
+        for (int f = 0; f < home.length; f++) {
+          int h = home[f], a = away[f];
+          int hg = poisson(homeExp[f], rnd), ag = poisson(awayExp[f], rnd);
+          homeGoals[f] = hg;
+          awayGoalsOf[f] = ag;
+          scored[h] += hg;
+          scored[a] += ag;
+          diff[h] += hg - ag;
+          diff[a] += ag - hg;
+          awayGoals[a] += ag;
+          if (hg > ag) { pts[h] += 3; won[h]++; }
+          else if (hg < ag) { pts[a] += 3; won[a]++; }
+          else { pts[h]++; pts[a]++; }
+        }
+        h2hBuilt = false;
+        int[] order = sorter.sort(n, pts, diff, scored, won, awayGoals, this, this);
+        for (int p = 0; p < n; p++) positions[order[p] * n + p]++;
+        for (int t = 0; t < n; t++) pointsSum[t] += pts[t];
+      }
+      return new Outcome(n, count, positions, pointsSum);
+    }
+
+    @Override
+    public int points(int i, int j) {
+      build();
+      return h2hPoints[i * n + j];
+    }
+
+    @Override
+    public int goals(int i, int j) {
+      build();
+      return h2hGoals[i * n + j];
+    }
+
+    @Override
+    public int awayGoals(int i, int j) {
+      build();
+      return h2hAwayGoals[i * n + j];
+    }
+
+    // level on every criterion the rules have: a fair draw
+    @Override
+    public void order(int[] idx, int lo, int hi) {
+      for (int p = hi - 1; p > lo; p--) {
+        int q = lo + rnd.nextInt(p - lo + 1);
+        int x = idx[p];
+        idx[p] = idx[q];
+        idx[q] = x;
+      }
+    }
+
+    private void build() {
+      if (h2hBuilt) return;
+      System.arraycopy(base.h2hPoints, 0, h2hPoints, 0, n * n);
+      System.arraycopy(base.h2hGoals, 0, h2hGoals, 0, n * n);
+      System.arraycopy(base.h2hAwayGoals, 0, h2hAwayGoals, 0, n * n);
+      for (int f = 0; f < home.length; f++) {
+        headToHead(n, home[f], away[f], homeGoals[f], awayGoalsOf[f], h2hPoints, h2hGoals, h2hAwayGoals);
+      }
+      h2hBuilt = true;
+    }
+  }
+
+  private static void headToHead(int n, int h, int a, int hg, int ag, int[] points, int[] goals, int[] awayGoals) {
+    goals[h * n + a] += hg;
+    goals[a * n + h] += ag;
+    awayGoals[a * n + h] += ag;
+    if (hg > ag) points[h * n + a] += 3;
+    else if (hg < ag) points[a * n + h] += 3;
+    else { points[h * n + a]++; points[a * n + h]++; }
+  }
+
+  // Knuth's method; lambdas here are around 1-3 so it takes a handful of draws
+  private static int poisson(double expMinusLambda, SplittableRandom rnd) {
+    int k = 0;
+    double p = rnd.nextDouble();
+    while (p > expMinusLambda && k < 20) {
+      p *= rnd.nextDouble();
+      k++;
+    }
+    return k;
+  }
+
+  // both sides are fresh from their own leaves, so the left one's arrays can take the sum
+  private static Outcome merge(Outcome a, Outcome b) {
+    long[] positions = a.positionCounts(), pointsSum = a.pointsSum();
+    for (int i = 0; i < positions.length; i++) positions[i] += b.positionCounts()[i];
+    for (int i = 0; i < pointsSum.length; i++) pointsSum[i] += b.pointsSum()[i];
+    return new Outcome(a.teams(), a.simulations() + b.simulations(), positions, pointsSum);
+  }
+}
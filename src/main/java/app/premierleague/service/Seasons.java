@@ -0,0 +1,122 @@
+package app.premierleague.service;
+
+import app.premierleague.db.ReadRouting;
+import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Competitions and their seasons. The list is a handful of rows, so it is cached whole and reloaded
+ * after any change made here commits.
+ */
+@Service
+public class Seasons {
+
+  /** Competition that writes and reads default to when none is given. */
+  public static final String DEFAULT_COMPETITION = "PL";
+
+  private final JdbcTemplate jdbc;
+  private final ApplicationEventPublisher events;
+  private volatile List<Season> cache;
+
+  public Seasons(JdbcTemplate jdbc, ApplicationEventPublisher events) {
+    this.jdbc = jdbc;
+    this.events = events;
+  }
+
+  public List<Season> all() {
+    var seasons = cache;
+    if (seasons == null) {
+      seasons = ReadRouting.onPrimary(() -> jdbc.query("""
+          SELECT s.id, s.competition_id, c.code, s.label, s.starts_on, s.ends_on, s.is_current
+          FROM seasons s JOIN competitions c ON c.id = s.competition_id
+          ORDER BY c.code, s.starts_on
+          """, (rs, i) -> new Season(rs.getInt("id"), rs.getInt("competition_id"), rs.getString("code"),
+              rs.getString("label"), rs.getObject("starts_on", LocalDate.class),
+              rs.getObject("ends_on", LocalDate.class), rs.getBoolean("is_current"))));
+      cache = seasons;
+    }
+    return seasons;
+  }
+
+  public Season get(int id) {
+    return all().stream().filter(s -> s.id() == id).findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("Unknown season: " + id));
+  }
+
+  /** The current season of every competition that has one. */
+  public List<Season> current() {
+    return all().stream().filter(Season::current).toList();
+  }
+
+  public Season current(String competition) {
+    return all().stream().filter(s -> s.current() && s.competition().equals(competition)).findFirst()
+        .orElseThrow(() -> new IllegalStateException("No current season for " + competition));
+  }
+
+  /** The season a match belongs to: the given one (checked against the kickoff) or the default competition's season covering the kickoff. */
+  public Season resolve(Integer seasonId, Instant kickoff) {
+    if (kickoff == null) throw new IllegalArgumentException("kickoff is required");
+    if (seasonId != null) {
+      var s = get(seasonId);
+      if (!s.covers(kickoff)) {
+        throw new IllegalArgumentException("Kickoff " + kickoff + " is outside season " + s.competition() + " " + s.label());
+      }
+      return s;
+    }
+    return all().stream().filter(s -> s.competition().equals(DEFAULT_COMPETITION) && s.covers(kickoff)).findFirst()
+        .orElseThrow(() -> new IllegalArgumentException("No " + DEFAULT_COMPETITION + " season covers kickoff " + kickoff));
+  }
+
+  /** The default competition's season covering the given instant, else the latest one that started before it. */
+  public Season asOf(Instant at) {
+    return all().stream()
+        .filter(s -> s.competition().equals(DEFAULT_COMPETITION) && !s.startsOn().isAfter(at.atOffset(ZoneOffset.UTC).toLocalDate()))
+        .max(Comparator.comparing(Season::startsOn))
+        .orElseThrow(() -> new IllegalArgumentException("No " + DEFAULT_COMPETITION + " season started by " + at));
+  }
+
+  /** Adds a season and its matches partition. */
+  @Transactional
+  public Season create(String competition, String label, LocalDate startsOn, LocalDate endsOn) {
+    Integer competitionId = jdbc.query("SELECT id FROM competitions WHERE code = ?",
+        rs -> rs.next() ? rs.getInt(1) : null, competition);
+    if (competitionId == null) throw new IllegalArgumentException("Unknown competition: " + competition);
+    Integer id = jdbc.queryForObject("""
+        INSERT INTO seasons (competition_id, label, starts_on, ends_on) VALUES (?, ?, ?, ?) RETURNING id
+        """, Integer.class, competitionId, label, startsOn, endsOn);
+    jdbc.execute("SELECT create_season_partition(" + id + ")");
+    reloadAfterCommit();
+    return new Season(id, competitionId, competition, label, startsOn, endsOn, false);
+  }
+
+  /** Makes the season its competition's current one; the caller rebuilds its standings. */
+  @Transactional
+  public void makeCurrent(int seasonId) {
+    var s = get(seasonId);
+    // two statements: ux_seasons_current is checked row by row
+    jdbc.update("UPDATE seasons SET is_current = FALSE WHERE competition_id = ? AND is_current", s.competitionId());
+    jdbc.update("UPDATE seasons SET is_current = TRUE WHERE id = ?", seasonId);
+    reloadAfterCommit();
+    events.publishEvent(StandingsChangedEvent.all());
+  }
+
+  private void reloadAfterCommit() {
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      // registered before any event listener of the same transaction, so those already see the new list
+      @Override
+      public void afterCommit() {
+        cache = null;
+      }
+    });
+  }
+}
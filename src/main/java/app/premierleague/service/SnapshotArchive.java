@@ -0,0 +1,143 @@
+package app.premierleague.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Writes the database's matches and standings to a {@link ColumnarSnapshot} file on demand. At startup it warms
+ * the head-to-head matrices, the league table and the table views from that file, instead of reading every
+ * season's matches back row by row.
+ *
+ * The file is only trusted while its fingerprint, over the matches and every standings row, matches the
+ * database; by then StandingsWriter has rebuilt the standings, so the table it warms is the one the database
+ * holds. A file written before a result was recorded or a rebuild ran, or against other data, is ignored and
+ * everything loads from Postgres as usual. With pl.snapshot.keep-database a matching database is also kept
+ * over a restart rather than recreated by the schema scripts (see SchemaInitConfig).
+ */
+@Service
+public class SnapshotArchive {
+
+  private static final Logger log = LoggerFactory.getLogger(SnapshotArchive.class);
+
+  private static final String STANDINGS = """
+      SELECT competition_id, season_id, team_id, played, won, drawn, lost, gf, ga, points
+      FROM standings
+      ORDER BY competition_id, season_id, team_id
+      """;
+
+  public record Written(Path path, int matches, int standings, long bytes, long elapsedMillis, Instant writtenAt) {}
+
+  private final JdbcTemplate streaming;
+  private final RankingEngine ranking;
+  private final LeagueTable leagueTable;
+  private final TableViews tableViews;
+  private final Path path;
+  private final boolean warmOnStartup;
+
+  public SnapshotArchive(JdbcTemplate jdbc, RankingEngine ranking, LeagueTable leagueTable, TableViews tableViews,
+                         @Value("${pl.snapshot.path:data/pl-snapshot.bin}") Path path,
+                         @Value("${pl.snapshot.warm-on-startup:true}") boolean warmOnStartup) {
+    // a fetch size inside a transaction makes the driver use a cursor instead of buffering the whole table
+    this.streaming = new JdbcTemplate(jdbc.getDataSource());
+    this.streaming.setFetchSize(5_000);
+    this.ranking = ranking;
+    this.leagueTable = leagueTable;
+    this.tableViews = tableViews;
+    this.path = path;
+    this.warmOnStartup = warmOnStartup;
+  }
+
+  /**
+   * Dumps all matches and standings. Both reads share one REPEATABLE READ transaction, i.e. one database
+   * snapshot, so a result committed in between cannot make the rows disagree with each other or the fingerprint.
+   */
+  @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+  public Written write() {
+    long t0 = System.nanoTime();
+    var out = new ColumnarSnapshot.Writer();
+    streaming.query("""
+        SELECT id, version, season_id, home_team_id, away_team_id, home_goals, away_goals, status, kickoff
+        FROM matches
+        ORDER BY season_id, kickoff, id
+        """, rs -> {
+      out.match(rs.getLong(1), rs.getLong(2), rs.getInt(3), rs.getInt(4), rs.getInt(5), rs.getInt(6), rs.getInt(7),
+          rs.getString(8), rs.getTimestamp(9).toInstant());
+    });
+    streaming.query(STANDINGS, rs -> {
+      out.standing(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4), rs.getInt(5), rs.getInt(6), rs.getInt(7),
+          rs.getInt(8), rs.getInt(9), rs.getInt(10));
+    });
+    try {
+      // from the writer rather than by reopening the file: a mapping of it would block the next replace on Windows
+      var writtenAt = Instant.now();
+      long bytes = out.writeTo(path, writtenAt);
+      return new Written(path.toAbsolutePath(), out.matches(), out.standings(), bytes,
+          (System.nanoTime() - t0) / 1_000_000, writtenAt);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not write snapshot " + path, e);
+    }
+  }
+
+  /** The snapshot file, if there is one and it still describes the database. */
+  public Optional<ColumnarSnapshot> current() {
+    return matching(path, streaming);
+  }
+
+  /** The snapshot at {@code path}, if it still describes the database; empty too if the schema is not there. */
+  public static Optional<ColumnarSnapshot> matching(Path path, JdbcTemplate jdbc) {
+    if (!Files.exists(path)) return Optional.empty();
+    try {
+      var snap = ColumnarSnapshot.open(path);
+      var digest = new ColumnarSnapshot.StandingsDigest();
+      jdbc.query(STANDINGS, rs -> {
+        digest.add(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getInt(4), rs.getInt(5), rs.getInt(6), rs.getInt(7),
+            rs.getInt(8), rs.getInt(9), rs.getInt(10));
+      });
+      var db = jdbc.queryForObject(
+          "SELECT count(*), coalesce(max(id), 0), coalesce(sum(version), 0) FROM matches",
+          (rs, i) -> new ColumnarSnapshot.Fingerprint(rs.getLong(1), rs.getLong(2), rs.getLong(3), digest.value()));
+      if (!snap.fingerprint().equals(db)) {
+        log.info("Snapshot {} is stale ({} vs database {}); ignoring it", path, snap.fingerprint(), db);
+        return Optional.empty();
+      }
+      return Optional.of(snap);
+    } catch (IOException e) {
+      log.warn("Could not read snapshot {}: {}", path, e.getMessage());
+      return Optional.empty();
+    } catch (DataAccessException e) {
+      log.info("Snapshot {} not checked, database has no matches table yet", path);
+      return Optional.empty();
+    }
+  }
+
+  // before LeagueTable and TableViews load, so they find their first snapshot already published
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  @EventListener(ApplicationReadyEvent.class)
+  public void warm() {
+    if (!warmOnStartup) return;
+    current().ifPresent(snap -> {
+      long t0 = System.nanoTime();
+      int seasons = ranking.preload(snap);
+      boolean table = leagueTable.warm(snap), views = tableViews.warm(snap);
+      log.info("Warmed head-to-head for {} seasons{}{} from {} in {} ms", seasons, table ? ", the table" : "",
+          views ? ", the table views" : "", path, (System.nanoTime() - t0) / 1_000_000);
+    });
+  }
+}
@@ -0,0 +1,12 @@
+package app.premierleague.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/** The match changed since the version the caller sent in If-Match. */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class StaleMatchException extends RuntimeException {
+  public StaleMatchException(long matchId, long expected, long actual) {
+    super("Match " + matchId + " is at version " + actual + ", not " + expected);
+  }
+}
@@ -0,0 +1,15 @@
+package app.premierleague.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.ws.soap.server.endpoint.annotation.FaultCode;
+import org.springframework.ws.soap.server.endpoint.annotation.SoapFault;
+
+/** The standings writer is too far behind to take more results; the caller should retry shortly. */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+@SoapFault(faultCode = FaultCode.SERVER)
+public class StandingsBacklogException extends RuntimeException {
+  public StandingsBacklogException(int pending) {
+    super("Standings update backlog is full (" + pending + " pending); retry shortly");
+  }
+}
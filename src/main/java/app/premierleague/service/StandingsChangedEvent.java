@@ -0,0 +1,11 @@
+package app.premierleague.service;
+
+import java.util.Set;
+
+/** Published inside the transaction that changed standings rows; empty teamIds means "all of them". */
+public record StandingsChangedEvent(Set<Integer> teamIds) {
+
+  public static StandingsChangedEvent all() {
+    return new StandingsChangedEvent(Set.of());
+  }
+}
@@ -0,0 +1,237 @@
+package app.premierleague.service;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the standings table in step with matches.
+ *
+ * Normal writes reach {@link #apply} through StandingsWriter, which batches them; apply turns result
+ * changes into per-team deltas and upserts only the affected rows of each match's season.
+ * {@link #rebuild} is the full re-aggregation, kept for repair and confined to one season's partition,
+ * and {@link #verify} diffs the stored table against that aggregation without touching it. Both paths also
+ * maintain the per-matchweek snapshots in {@link StandingsHistory}.
+ */
+@Service
+public class StandingsEngine {
+
+  // Full aggregation over one season's FT matches; "expected" is one row per team. Both placeholders
+  // are the season id, which confines every scan to that season's partition.
+  static final String EXPECTED_CTE = """
+      WITH home AS (
+        SELECT home_team_id AS team_id,
+               COUNT(*) AS played,
+               SUM(CASE WHEN home_goals > away_goals THEN 1 ELSE 0 END) AS won,
+               SUM(CASE WHEN home_goals = away_goals THEN 1 ELSE 0 END) AS drawn,
+               SUM(CASE WHEN home_goals < away_goals THEN 1 ELSE 0 END) AS lost,
+               SUM(home_goals) AS gf,
+               SUM(away_goals) AS ga
+        FROM matches
+        WHERE season_id = ? AND status = 'FT'
+        GROUP BY home_team_id
+      ),
+      away AS (
+        SELECT away_team_id AS team_id,
+               COUNT(*) AS played,
+               SUM(CASE WHEN away_goals > home_goals THEN 1 ELSE 0 END) AS won,
+               SUM(CASE WHEN away_goals = home_goals THEN 1 ELSE 0 END) AS drawn,
+               SUM(CASE WHEN away_goals < home_goals THEN 1 ELSE 0 END) AS lost,
+               SUM(away_goals) AS gf,
+               SUM(home_goals) AS ga
+        FROM matches
+        WHERE season_id = ? AND status = 'FT'
+        GROUP BY away_team_id
+      ),
+      agg AS (
+        SELECT team_id,
+               SUM(played) AS played,
+               SUM(won) AS won,
+               SUM(drawn) AS drawn,
+               SUM(lost) AS lost,
+               SUM(gf) AS gf,
+               SUM(ga) AS ga
+        FROM (
+          SELECT * FROM home
+          UNION ALL
+          SELECT * FROM away
+        ) x
+        GROUP BY team_id
+      ),
+      expected AS (
+        SELECT t.id AS team_id,
+               COALESCE(a.played, 0) AS played,
+               COALESCE(a.won, 0) AS won,
+               COALESCE(a.drawn, 0) AS drawn,
+               COALESCE(a.lost, 0) AS lost,
+               COALESCE(a.gf, 0) AS gf,
+               COALESCE(a.ga, 0) AS ga,
+               COALESCE(a.gf, 0) - COALESCE(a.ga, 0) AS gd,
+               COALESCE(a.won, 0) * 3 + COALESCE(a.drawn, 0) AS points
+        FROM teams t
+        LEFT JOIN agg a ON a.team_id = t.id
+      )
+      """;
+
+  private static final String UPSERT_DELTA = """
+      INSERT INTO standings (competition_id, season_id, team_id, played, won, drawn, lost, gf, ga, gd, points, last_updated)
+      VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, NOW())
+      ON CONFLICT (competition_id, season_id, team_id) DO UPDATE SET
+        played = standings.played + EXCLUDED.played,
+        won    = standings.won    + EXCLUDED.won,
+        drawn  = standings.drawn  + EXCLUDED.drawn,
+        lost   = standings.lost   + EXCLUDED.lost,
+        gf     = standings.gf     + EXCLUDED.gf,
+        ga     = standings.ga     + EXCLUDED.ga,
+        gd     = standings.gd     + EXCLUDED.gd,
+        points = standings.points + EXCLUDED.points,
+        last_updated = NOW()
+      """;
+
+  private final JdbcTemplate jdbc;
+  private final StandingsHistory history;
+  private final Seasons seasons;
+  private final QueryCacheInvalidator queryCache;
+  private final ApplicationEventPublisher events;
+
+  public StandingsEngine(JdbcTemplate jdbc, StandingsHistory history, Seasons seasons,
+                         QueryCacheInvalidator queryCache, ApplicationEventPublisher events) {
+    this.jdbc = jdbc;
+    this.history = history;
+    this.seasons = seasons;
+    this.queryCache = queryCache;
+    this.events = events;
+  }
+
+  /** Applies the net effect of the given changes; must run inside the caller's transaction. */
+  @Timed("pl.standings.apply")
+  public void apply(Collection<ResultChange> changes) {
+    // TreeMaps so concurrent writers always lock standings rows in the same order
+    Map<TeamSeason, TeamDelta> deltas = new TreeMap<>();
+    SortedMap<StandingsHistory.Slot, TeamDelta> weekly = new TreeMap<>();
+    for (ResultChange c : changes) {
+      if (c.isNoop()) continue;
+      var week = StandingsHistory.weekOf(c.kickoff());
+      if (c.before() != null) add(deltas, weekly, week, c, c.before(), -1);
+      if (c.after() != null) add(deltas, weekly, week, c, c.after(), 1);
+    }
+    deltas.values().removeIf(TeamDelta::isZero);
+    weekly.values().removeIf(TeamDelta::isZero);
+    history.apply(weekly);
+    if (deltas.isEmpty()) return;
+
+    List<Object[]> args = new ArrayList<>(deltas.size());
+    deltas.forEach((key, d) -> args.add(new Object[] {
+        seasons.get(key.seasonId()).competitionId(), key.seasonId(), key.teamId(),
+        d.played, d.won, d.drawn, d.lost, d.gf, d.ga, d.gf - d.ga, d.won * 3 + d.drawn
+    }));
+    jdbc.batchUpdate(UPSERT_DELTA, args);
+    queryCache.written(QueryCacheInvalidator.STANDINGS);
+    events.publishEvent(new StandingsChangedEvent(
+        deltas.keySet().stream().map(TeamSeason::teamId).collect(Collectors.toUnmodifiableSet())));
+  }
+
+  @Timed("pl.standings.apply")
+  public void apply(ResultChange change) {
+    apply(List.of(change));
+  }
+
+  /** Re-aggregates the current season of every competition; older seasons are left alone. */
+  @Timed("pl.standings.rebuild")
+  @Transactional
+  public void rebuild() {
+    seasons.current().forEach(s -> rebuildSeason(s.id()));
+    events.publishEvent(StandingsChangedEvent.all());
+  }
+
+  /** Throws one season's table away and re-aggregates it from that season's FT matches. */
+  @Timed("pl.standings.rebuild")
+  @Transactional
+  public void rebuild(int seasonId) {
+    rebuildSeason(seasonId);
+    events.publishEvent(StandingsChangedEvent.all());
+  }
+
+  private void rebuildSeason(int seasonId) {
+    var season = seasons.get(seasonId);
+    jdbc.update("DELETE FROM standings WHERE season_id = ?", seasonId);
+    jdbc.update(EXPECTED_CTE + """
+        INSERT INTO standings (competition_id, season_id, team_id, played, won, drawn, lost, gf, ga, gd, points, last_updated)
+        SELECT ?, ?, team_id, played, won, drawn, lost, gf, ga, gd, points, NOW()
+        FROM expected
+        """, seasonId, seasonId, season.competitionId(), seasonId);
+    queryCache.written(QueryCacheInvalidator.STANDINGS);
+    history.rebuild(seasonId);
+  }
+
+  /** Rows of the current seasons' tables that disagree with a full re-aggregation; empty when consistent. */
+  public List<StandingsMismatch> verify() {
+    List<StandingsMismatch> out = new ArrayList<>();
+    seasons.current().forEach(s -> out.addAll(verify(s.id())));
+    return out;
+  }
+
+  public List<StandingsMismatch> verify(int seasonId) {
+    return jdbc.query(EXPECTED_CTE + """
+        SELECT COALESCE(e.team_id, s.team_id) AS team_id,
+               e.played AS e_played, e.won AS e_won, e.drawn AS e_drawn, e.lost AS e_lost,
+               e.gf AS e_gf, e.ga AS e_ga, e.gd AS e_gd, e.points AS e_points,
+               s.played AS s_played, s.won AS s_won, s.drawn AS s_drawn, s.lost AS s_lost,
+               s.gf AS s_gf, s.ga AS s_ga, s.gd AS s_gd, s.points AS s_points
+        FROM expected e
+        FULL JOIN (SELECT * FROM standings WHERE season_id = ?) s ON s.team_id = e.team_id
+        WHERE (e.played, e.won, e.drawn, e.lost, e.gf, e.ga, e.gd, e.points)
+              IS DISTINCT FROM
+              (s.played, s.won, s.drawn, s.lost, s.gf, s.ga, s.gd, s.points)
+        ORDER BY 1
+        """, (rs, i) -> new StandingsMismatch(
+            seasonId,
+            rs.getInt("team_id"),
+            StandingsMismatch.Line.read(rs, "e_"),
+            StandingsMismatch.Line.read(rs, "s_")), seasonId, seasonId, seasonId);
+  }
+
+  private static void add(Map<TeamSeason, TeamDelta> deltas, Map<StandingsHistory.Slot, TeamDelta> weekly,
+                          LocalDate week, ResultChange c, ResultChange.Score s, int sign) {
+    deltas.computeIfAbsent(new TeamSeason(c.seasonId(), c.homeTeamId()), k -> new TeamDelta()).add(s.home(), s.away(), sign);
+    deltas.computeIfAbsent(new TeamSeason(c.seasonId(), c.awayTeamId()), k -> new TeamDelta()).add(s.away(), s.home(), sign);
+    weekly.computeIfAbsent(new StandingsHistory.Slot(c.seasonId(), c.homeTeamId(), week), k -> new TeamDelta()).add(s.home(), s.away(), sign);
+    weekly.computeIfAbsent(new StandingsHistory.Slot(c.seasonId(), c.awayTeamId(), week), k -> new TeamDelta()).add(s.away(), s.home(), sign);
+  }
+
+  // TreeMap key: rows are upserted, and so locked, in (season, team) order
+  private record TeamSeason(int seasonId, int teamId) implements Comparable<TeamSeason> {
+    public int compareTo(TeamSeason o) {
+      int c = Integer.compare(seasonId, o.seasonId);
+      return c != 0 ? c : Integer.compare(teamId, o.teamId);
+    }
+  }
+
+  static final class TeamDelta {
+    int played, won, drawn, lost, gf, ga;
+
+    void add(int goalsFor, int goalsAgainst, int sign) {
+      played += sign;
+      if (goalsFor > goalsAgainst) won += sign;
+      else if (goalsFor == goalsAgainst) drawn += sign;
+      else lost += sign;
+      gf += sign * goalsFor;
+      ga += sign * goalsAgainst;
+    }
+
+    boolean isZero() {
+      return played == 0 && won == 0 && drawn == 0 && lost == 0 && gf == 0 && ga == 0;
+    }
+  }
+}
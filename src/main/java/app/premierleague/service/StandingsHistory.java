@@ -0,0 +1,335 @@
+package app.premierleague.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Cumulative standings per matchweek of each season, kept in standings_history.
+ *
+ * A matchweek is a calendar week (Monday to Sunday, UTC) in which at least one match finished; a week whose
+ * last FT result is reverted is dropped, so the numbering always matches a rebuild. Each week has one row per
+ * team holding the totals after every match up to that week's end, plus the position. StandingsEngine.apply
+ * feeds the deltas in: a result for week W adds to every snapshot from W onwards and re-ranks those weeks. A
+ * result for the current week therefore touches only the latest snapshot, and "the table after matchweek N" or
+ * "team X over the season" is a single indexed read.
+ *
+ * Positions are ranked by {@link RankingEngine} under the competition's {@link RankingRules}, with head-to-head
+ * figures as of each week's end, so a past table orders teams the way /table did at the time. A table as of an
+ * instant can fall mid-week: it is the previous week's snapshot plus that week's results up to the instant.
+ */
+@Service
+public class StandingsHistory {
+
+  public record Row(int position, int teamId, int played, int won, int drawn, int lost,
+                    int gf, int ga, int gd, int points) {}
+
+  public record Table(int seasonId, LocalDate week, int matchweek, List<Row> rows) {}
+
+  public record Position(LocalDate week, int matchweek, int position, int points) {}
+
+  /** One team in one week of a season, ordered so concurrent writers lock rows in the same order. */
+  record Slot(int seasonId, int teamId, LocalDate week) implements Comparable<Slot> {
+    public int compareTo(Slot o) {
+      int c = Integer.compare(seasonId, o.seasonId);
+      if (c == 0) c = Integer.compare(teamId, o.teamId);
+      return c != 0 ? c : week.compareTo(o.week);
+    }
+  }
+
+  // New week: every team starts from its latest earlier snapshot (or zero)
+  private static final String OPEN_WEEK = """
+      INSERT INTO standings_history (season_id, week, team_id, played, won, drawn, lost, gf, ga, gd, points)
+      SELECT ?, ?, t.id, COALESCE(p.played, 0), COALESCE(p.won, 0), COALESCE(p.drawn, 0), COALESCE(p.lost, 0),
+             COALESCE(p.gf, 0), COALESCE(p.ga, 0), COALESCE(p.gd, 0), COALESCE(p.points, 0)
+      FROM teams t
+      LEFT JOIN LATERAL (
+        SELECT * FROM standings_history h
+        WHERE h.season_id = ? AND h.team_id = t.id AND h.week < ?
+        ORDER BY h.week DESC
+        LIMIT 1
+      ) p ON true
+      ON CONFLICT (season_id, week, team_id) DO NOTHING
+      """;
+
+  private static final String ADD_DELTA = """
+      UPDATE standings_history SET
+        played = played + ?, won = won + ?, drawn = drawn + ?, lost = lost + ?,
+        gf = gf + ?, ga = ga + ?, gd = gd + ?, points = points + ?
+      WHERE season_id = ? AND team_id = ? AND week >= ?
+      """;
+
+  // A week left without an FT result; the bounds are date_trunc('week', kickoff AT TIME ZONE 'UTC') inverted
+  private static final String DROP_EMPTY_WEEK = """
+      DELETE FROM standings_history h
+      WHERE h.season_id = ? AND h.week = ?
+        AND NOT EXISTS (
+          SELECT 1 FROM matches m
+          WHERE m.season_id = ? AND m.status = 'FT'
+            AND m.kickoff >= h.week::timestamp AT TIME ZONE 'UTC'
+            AND m.kickoff < (h.week + 7)::timestamp AT TIME ZONE 'UTC'
+        )
+      """;
+
+  private static final String FINISHED = """
+      SELECT id, home_team_id, away_team_id, home_goals, away_goals, kickoff
+      FROM matches
+      WHERE season_id = ? AND status = 'FT' AND kickoff >= ? AND kickoff < ?
+      ORDER BY kickoff, id
+      """;
+
+  // every status, so a result taken back out is seen too
+  private static final String SINCE = """
+      SELECT id, home_team_id, away_team_id, home_goals, away_goals, kickoff, status = 'FT' AS finished
+      FROM matches
+      WHERE season_id = ? AND kickoff >= ?
+      ORDER BY kickoff, id
+      """;
+
+  private static final String REBUILD = """
+      WITH played AS (
+        SELECT date_trunc('week', kickoff AT TIME ZONE 'UTC')::date AS week, home_team_id AS team_id,
+               home_goals AS gf, away_goals AS ga
+        FROM matches WHERE season_id = ? AND status = 'FT'
+        UNION ALL
+        SELECT date_trunc('week', kickoff AT TIME ZONE 'UTC')::date, away_team_id, away_goals, home_goals
+        FROM matches WHERE season_id = ? AND status = 'FT'
+      ),
+      per_week AS (
+        SELECT week, team_id,
+               COUNT(*) AS played,
+               SUM(CASE WHEN gf > ga THEN 1 ELSE 0 END) AS won,
+               SUM(CASE WHEN gf = ga THEN 1 ELSE 0 END) AS drawn,
+               SUM(CASE WHEN gf < ga THEN 1 ELSE 0 END) AS lost,
+               SUM(gf) AS gf, SUM(ga) AS ga
+        FROM played
+        GROUP BY week, team_id
+      ),
+      cumulative AS (
+        SELECT w.week, t.id AS team_id,
+               SUM(COALESCE(p.played, 0)) OVER c AS played,
+               SUM(COALESCE(p.won, 0))    OVER c AS won,
+               SUM(COALESCE(p.drawn, 0))  OVER c AS drawn,
+               SUM(COALESCE(p.lost, 0))   OVER c AS lost,
+               SUM(COALESCE(p.gf, 0))     OVER c AS gf,
+               SUM(COALESCE(p.ga, 0))     OVER c AS ga
+        FROM (SELECT DISTINCT week FROM played) w
+        CROSS JOIN teams t
+        LEFT JOIN per_week p ON p.week = w.week AND p.team_id = t.id
+        WINDOW c AS (PARTITION BY t.id ORDER BY w.week)
+      )
+      INSERT INTO standings_history (season_id, week, team_id, played, won, drawn, lost, gf, ga, gd, points)
+      SELECT ?, week, team_id, played, won, drawn, lost, gf, ga, gf - ga, won * 3 + drawn
+      FROM cumulative
+      """;
+
+  private static final String WEEKS = """
+      WITH weeks AS (
+        SELECT week, ROW_NUMBER() OVER (ORDER BY week) AS matchweek
+        FROM (SELECT DISTINCT week FROM standings_history WHERE season_id = ?) d
+      ),
+      """;
+
+  private static final String TABLE_OF_PICK = """
+      SELECT p.week, p.matchweek, h.position, h.team_id, h.played, h.won, h.drawn, h.lost, h.gf, h.ga, h.gd, h.points
+      FROM pick p
+      JOIN standings_history h ON h.season_id = ? AND h.week = p.week
+      ORDER BY h.position
+      """;
+
+  private static final String ROW_COLUMNS = "position, team_id, played, won, drawn, lost, gf, ga, gd, points";
+
+  private static final RowMapper<Row> ROW = (rs, i) -> new Row(
+      rs.getInt("position"), rs.getInt("team_id"), rs.getInt("played"), rs.getInt("won"), rs.getInt("drawn"),
+      rs.getInt("lost"), rs.getInt("gf"), rs.getInt("ga"), rs.getInt("gd"), rs.getInt("points"));
+
+  private record Result(long id, int homeTeamId, int awayTeamId, int homeGoals, int awayGoals, Instant kickoff,
+                        boolean finished) {}
+
+  private final JdbcTemplate jdbc;
+  private final Seasons seasons;
+  private final Teams teams;
+  private final RankingEngine ranking;
+
+  public StandingsHistory(JdbcTemplate jdbc, Seasons seasons, Teams teams, RankingEngine ranking) {
+    this.jdbc = jdbc;
+    this.seasons = seasons;
+    this.teams = teams;
+    this.ranking = ranking;
+  }
+
+  /** The matchweek a kickoff belongs to; must agree with date_trunc('week', kickoff AT TIME ZONE 'UTC'). */
+  public static LocalDate weekOf(Instant kickoff) {
+    return kickoff.atOffset(ZoneOffset.UTC).toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+  }
+
+  /** Applies per-team, per-week deltas; runs inside StandingsEngine.apply's transaction. */
+  void apply(SortedMap<Slot, StandingsEngine.TeamDelta> deltas) {
+    if (deltas.isEmpty()) return;
+    Map<Integer, TreeSet<LocalDate>> weeks = new TreeMap<>();
+    deltas.keySet().forEach(s -> weeks.computeIfAbsent(s.seasonId(), k -> new TreeSet<>()).add(s.week()));
+
+    // ascending, so a week opened here copies from an earlier week opened just before it
+    List<Object[]> open = new ArrayList<>();
+    weeks.forEach((season, ws) -> ws.forEach(w -> open.add(new Object[] {season, w, season, w})));
+    jdbc.batchUpdate(OPEN_WEEK, open);
+
+    List<Object[]> args = new ArrayList<>(deltas.size());
+    for (Map.Entry<Slot, StandingsEngine.TeamDelta> e : deltas.entrySet()) {
+      var d = e.getValue();
+      args.add(new Object[] {
+          d.played, d.won, d.drawn, d.lost, d.gf, d.ga, d.gf - d.ga, d.won * 3 + d.drawn,
+          e.getKey().seasonId(), e.getKey().teamId(), e.getKey().week()
+      });
+    }
+    jdbc.batchUpdate(ADD_DELTA, args);
+    jdbc.batchUpdate(DROP_EMPTY_WEEK, open.stream().map(a -> new Object[] {a[0], a[1], a[0]}).toList());
+    weeks.forEach((season, ws) -> rank(seasons.get(season), ws.first(), ranking.headToHead(season)));
+  }
+
+  void rebuild(int seasonId) {
+    jdbc.update("DELETE FROM standings_history WHERE season_id = ?", seasonId);
+    jdbc.update(REBUILD, seasonId, seasonId, seasonId);
+    // every match of a season kicks off within it, so its first week is the earliest one; the matrix is built
+    // from scratch, since the maintained one is dropped with the rebuild
+    var season = seasons.get(seasonId);
+    rank(season, season.startsOn().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)),
+        new HeadToHead(teams.current().rows().size()));
+  }
+
+  // Re-ranks the weeks from the given one on, the ones a delta has just changed. The head-to-head matrix starts
+  // as a copy of RankingEngine's maintained one. The matches from the first week on are read back to settle
+  // their own contribution, which the after-commit updates of that matrix may not have caught up with, and
+  // are then taken back out week by week, newest first, so the matrix stands at each week's end as that
+  // week's rows are ordered. A result for the current week reads that week's matches and nothing more.
+  private void rank(Season season, LocalDate from, HeadToHead h2h) {
+    int seasonId = season.id();
+    List<Result> tail = since(seasonId, from.atStartOfDay(ZoneOffset.UTC).toInstant());
+    for (var r : tail) h2h.apply(r.id(), r.homeTeamId(), r.awayTeamId(), r.homeGoals(), r.awayGoals(), r.finished());
+    var byWeek = new TreeMap<LocalDate, List<Row>>();
+    jdbc.query("SELECT week, " + ROW_COLUMNS + " FROM standings_history WHERE season_id = ? AND week >= ?",
+        rs -> { byWeek.computeIfAbsent(rs.getObject("week", LocalDate.class), w -> new ArrayList<>()).add(ROW.mapRow(rs, 0)); },
+        seasonId, from);
+
+    int last = tail.size();
+    List<Object[]> args = new ArrayList<>();
+    for (var e : byWeek.descendingMap().entrySet()) {
+      LocalDate week = e.getKey();
+      for (; last > 0 && weekOf(tail.get(last - 1).kickoff()).isAfter(week); last--) {
+        var r = tail.get(last - 1);
+        h2h.apply(r.id(), r.homeTeamId(), r.awayTeamId(), r.homeGoals(), r.awayGoals(), false);
+      }
+      List<Row> rows = e.getValue();
+      int[] order = ranking.order(season, rows.stream().map(StandingsHistory::totals).toList(), h2h);
+      for (int p = 0; p < order.length; p++) {
+        var row = rows.get(order[p]);
+        if (row.position() != p + 1) args.add(new Object[] {p + 1, seasonId, week, row.teamId()});
+      }
+    }
+    jdbc.batchUpdate("UPDATE standings_history SET position = ? WHERE season_id = ? AND week = ? AND team_id = ?", args);
+  }
+
+  // FT results kicking off in [from, before), in kickoff order
+  private List<Result> finished(int seasonId, Instant from, Instant before) {
+    return jdbc.query(FINISHED, (rs, i) -> new Result(rs.getLong("id"), rs.getInt("home_team_id"),
+        rs.getInt("away_team_id"), rs.getInt("home_goals"), rs.getInt("away_goals"),
+        rs.getTimestamp("kickoff").toInstant(), true), seasonId, Timestamp.from(from), Timestamp.from(before));
+  }
+
+  // every match of the season kicking off at or after from, FT or not, in kickoff order
+  private List<Result> since(int seasonId, Instant from) {
+    return jdbc.query(SINCE, (rs, i) -> new Result(rs.getLong("id"), rs.getInt("home_team_id"),
+        rs.getInt("away_team_id"), rs.getInt("home_goals"), rs.getInt("away_goals"),
+        rs.getTimestamp("kickoff").toInstant(), rs.getBoolean("finished")), seasonId, Timestamp.from(from));
+  }
+
+  private static RankingEngine.Totals totals(Row r) {
+    return new RankingEngine.Totals(r.teamId(), r.points(), r.gd(), r.gf(), r.won());
+  }
+
+  /**
+   * The table after every result that kicked off before asOf, in the default competition's season covering
+   * asOf (or the latest one before it); empty rows if none had. Read from the last weekly snapshot before
+   * asOf's week, with the results of that week up to asOf folded in; the week and matchweek are then asOf's.
+   */
+  public Table asOf(Instant asOf) {
+    var season = seasons.asOf(asOf);
+    LocalDate week = weekOf(asOf);
+    var base = pick(season.id(), "pick AS (SELECT week, matchweek FROM weeks WHERE week < ? ORDER BY week DESC LIMIT 1)\n", week);
+    List<Result> partial = finished(season.id(), week.atStartOfDay(ZoneOffset.UTC).toInstant(), asOf);
+    // the snapshot was ranked at its week's end, and nothing has happened since
+    if (partial.isEmpty()) return base;
+
+    // team id -> played, won, drawn, lost, gf, ga; every team has a line, as in the weekly snapshots
+    Map<Integer, int[]> tally = new TreeMap<>();
+    if (base.rows().isEmpty()) teams.current().rows().forEach(t -> tally.put(t.getId(), new int[6]));
+    for (var r : base.rows()) tally.put(r.teamId(), new int[] {r.played(), r.won(), r.drawn(), r.lost(), r.gf(), r.ga()});
+    for (var r : partial) {
+      count(tally.computeIfAbsent(r.homeTeamId(), k -> new int[6]), r.homeGoals(), r.awayGoals());
+      count(tally.computeIfAbsent(r.awayTeamId(), k -> new int[6]), r.awayGoals(), r.homeGoals());
+    }
+    // head-to-head as of asOf: the maintained matrix with everything from asOf on taken back out
+    var h2h = ranking.headToHead(season.id());
+    for (var r : partial) h2h.apply(r.id(), r.homeTeamId(), r.awayTeamId(), r.homeGoals(), r.awayGoals(), true);
+    for (var r : since(season.id(), asOf)) h2h.apply(r.id(), r.homeTeamId(), r.awayTeamId(), r.homeGoals(), r.awayGoals(), false);
+
+    List<Row> lines = new ArrayList<>(tally.size());
+    tally.forEach((teamId, t) -> lines.add(
+        new Row(0, teamId, t[0], t[1], t[2], t[3], t[4], t[5], t[4] - t[5], t[1] * 3 + t[2])));
+    int[] order = ranking.order(season, lines.stream().map(StandingsHistory::totals).toList(), h2h);
+    List<Row> rows = new ArrayList<>(order.length);
+    for (int p = 0; p < order.length; p++) {
+      var l = lines.get(order[p]);
+      rows.add(new Row(p + 1, l.teamId(), l.played(), l.won(), l.drawn(), l.lost(), l.gf(), l.ga(), l.gd(), l.points()));
+    }
+    return new Table(season.id(), week, base.matchweek() + 1, rows);
+  }
+
+  private static void count(int[] t, int scored, int conceded) {
+    t[0]++;
+    if (scored > conceded) t[1]++;
+    else if (scored == conceded) t[2]++;
+    else t[3]++;
+    t[4] += scored;
+    t[5] += conceded;
+  }
+
+  public Table atMatchweek(int seasonId, int matchweek) {
+    return pick(seasonId, "pick AS (SELECT week, matchweek FROM weeks WHERE matchweek = ?)\n", matchweek);
+  }
+
+  private Table pick(int seasonId, String pick, Object arg) {
+    LocalDate[] week = {null};
+    int[] matchweek = {0};
+    List<Row> rows = jdbc.query(WEEKS + pick + TABLE_OF_PICK, (rs, i) -> {
+      week[0] = rs.getObject("week", LocalDate.class);
+      matchweek[0] = rs.getInt("matchweek");
+      return ROW.mapRow(rs, i);
+    }, seasonId, arg, seasonId);
+    return new Table(seasonId, week[0], matchweek[0], rows);
+  }
+
+  /** Position after every matchweek of the season, oldest first. */
+  public List<Position> positions(int teamId, int seasonId) {
+    return jdbc.query("""
+        SELECT week, ROW_NUMBER() OVER (ORDER BY week) AS matchweek, position, points
+        FROM standings_history
+        WHERE season_id = ? AND team_id = ?
+        ORDER BY week
+        """, (rs, i) -> new Position(rs.getObject("week", LocalDate.class), rs.getInt("matchweek"),
+            rs.getInt("position"), rs.getInt("points")), seasonId, teamId);
+  }
+}
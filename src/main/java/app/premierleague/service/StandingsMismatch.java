@@ -0,0 +1,21 @@
+package app.premierleague.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/** One team whose stored standings row for a season differs from the full aggregation. A missing side is null. */
+public record StandingsMismatch(int seasonId, int teamId, Line expected, Line actual) {
+
+  public record Line(int played, int won, int drawn, int lost, int gf, int ga, int gd, int points) {
+
+    static Line read(ResultSet rs, String prefix) throws SQLException {
+      rs.getInt(prefix + "played");
+      if (rs.wasNull()) return null;
+      return new Line(
+          rs.getInt(prefix + "played"), rs.getInt(prefix + "won"),
+          rs.getInt(prefix + "drawn"), rs.getInt(prefix + "lost"),
+          rs.getInt(prefix + "gf"), rs.getInt(prefix + "ga"),
+          rs.getInt(prefix + "gd"), rs.getInt(prefix + "points"));
+    }
+  }
+}
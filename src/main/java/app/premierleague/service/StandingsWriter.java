@@ -0,0 +1,290 @@
+package app.premierleague.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind stage between result writes and the standings table.
+ *
+ * A result transaction only reserves room here; its changes are queued once the matches row has
+ * committed, so the caller is acknowledged without touching standings. A single writer thread takes
+ * whatever has queued up within a short linger window and applies it as one StandingsEngine.apply in
+ * its own transaction, so a burst of results costs one upsert of the affected rows and nothing else
+ * contends for the standings locks. Room is reserved with a semaphore, so the backlog is bounded and a
+ * full one fails the submission (503 / SOAP fault) before anything is written.
+ *
+ * Queued changes live only in memory. The table is therefore rebuilt from matches at startup, before
+ * the web server takes requests, so anything lost in a crash is recovered. A batch is retried for as long
+ * as the database is unreachable; one that keeps failing for any other reason is dropped, with the
+ * changes queued behind it, and the seasons they touch are rebuilt from matches instead.
+ *
+ * With pl.standings.write-behind=false the changes are applied inline, inside the result transaction,
+ * as before.
+ */
+@Service
+public class StandingsWriter {
+
+  private static final Logger log = LoggerFactory.getLogger(StandingsWriter.class);
+
+  // attempts at a batch that fails for a reason other than the database being unreachable
+  static final int MAX_ATTEMPTS = 3;
+
+  private record Pending(long seq, List<ResultChange> changes) {}
+
+  private final StandingsEngine engine;
+  private final TransactionTemplate tx;
+  private final boolean writeBehind;
+  private final int capacity;
+  private final long lingerMillis;
+  private final Duration readYourWritesTimeout;
+
+  private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+  private final Semaphore room;
+  private final Object progress = new Object();
+  private final Object applying = new Object();
+  private long enqueued; // guarded by progress
+  private long applied;  // guarded by progress
+  private final DistributionSummary batchSize;
+  private final Counter deadLettered;
+  private final MeterRegistry registry;
+  private Thread worker;
+  private volatile boolean running;
+
+  public StandingsWriter(StandingsEngine engine, PlatformTransactionManager txManager, MeterRegistry registry,
+                         @Value("${pl.standings.write-behind:true}") boolean writeBehind,
+                         @Value("${pl.standings.queue-capacity:10000}") int capacity,
+                         @Value("${pl.standings.linger-ms:5}") long lingerMillis,
+                         @Value("${pl.standings.read-your-writes-timeout-ms:2000}") long readYourWritesMillis) {
+    this.engine = engine;
+    this.tx = new TransactionTemplate(txManager);
+    this.writeBehind = writeBehind;
+    this.capacity = capacity;
+    this.lingerMillis = lingerMillis;
+    this.readYourWritesTimeout = Duration.ofMillis(readYourWritesMillis);
+    this.room = new Semaphore(capacity);
+    this.batchSize = DistributionSummary.builder("pl.standings.batch").register(registry);
+    this.deadLettered = Counter.builder("pl.standings.dropped").register(registry);
+    this.registry = registry;
+  }
+
+  // Before the web server starts, so no result can commit between the rebuild and the first batch.
+  @PostConstruct
+  void start() {
+    // here rather than in the constructor, which must not hand out this before it finishes
+    Gauge.builder("pl.standings.backlog", this, StandingsWriter::backlog).register(registry);
+    if (!writeBehind) return;
+    engine.rebuild();
+    running = true;
+    worker = Thread.ofPlatform().name("standings-writer").daemon().start(this::run);
+  }
+
+  /**
+   * Schedules changes for the standings table; call inside the transaction that wrote them.
+   *
+   * @throws StandingsBacklogException if the backlog has no room left
+   */
+  public void submit(Collection<ResultChange> changes) {
+    List<ResultChange> effective = changes.stream().filter(c -> !c.isNoop()).toList();
+    if (effective.isEmpty()) return;
+    if (!writeBehind || !TransactionSynchronizationManager.isSynchronizationActive()) {
+      engine.apply(effective);
+      return;
+    }
+
+    int n = effective.size();
+    if (n > capacity || !room.tryAcquire(n)) throw new StandingsBacklogException(backlog());
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        synchronized (progress) {
+          queue.add(new Pending(++enqueued, effective));
+        }
+      }
+
+      @Override
+      public void afterCompletion(int status) {
+        if (status != STATUS_COMMITTED) room.release(n);
+      }
+    });
+  }
+
+  public void submit(ResultChange change) {
+    submit(List.of(change));
+  }
+
+  /**
+   * Waits until everything committed so far, including the caller's own write, is in the standings
+   * table and the cached league table.
+   *
+   * @return false if that did not happen within pl.standings.read-your-writes-timeout-ms
+   */
+  public boolean awaitApplied() {
+    long deadline = System.nanoTime() + readYourWritesTimeout.toNanos();
+    synchronized (progress) {
+      long target = enqueued;
+      while (applied < target) {
+        long left = deadline - System.nanoTime();
+        if (left <= 0) return false;
+        try {
+          TimeUnit.NANOSECONDS.timedWait(progress, left);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  public int backlog() {
+    return capacity - room.availablePermits();
+  }
+
+  private void run() {
+    List<Pending> batch = new ArrayList<>();
+    while (running || !queue.isEmpty()) {
+      try {
+        Pending first = queue.poll(1, TimeUnit.SECONDS);
+        if (first == null) continue;
+        batch.add(first);
+        // let the rest of a burst arrive, then take all of it as one update
+        if (lingerMillis > 0 && running) Thread.sleep(lingerMillis);
+      } catch (InterruptedException e) {
+        if (running) continue; // woken for shutdown: fall through and flush what is queued
+      }
+      synchronized (applying) {
+        queue.drainTo(batch);
+        if (!batch.isEmpty()) applyWithRetry(batch);
+      }
+      batch.clear();
+    }
+  }
+
+  private void applyWithRetry(List<Pending> batch) {
+    List<ResultChange> changes = new ArrayList<>();
+    batch.forEach(p -> changes.addAll(p.changes()));
+    long backoff = 100;
+    int failures = 0;
+    while (true) {
+      try {
+        tx.executeWithoutResult(s -> engine.apply(changes));
+        break;
+      } catch (RuntimeException e) {
+        if (!databaseUnavailable(e) && ++failures >= MAX_ATTEMPTS) {
+          giveUp(batch, changes, e);
+          return;
+        }
+        // the changes are committed facts; keep them (and their backlog room) until the database is back
+        log.warn("Standings update of {} changes failed, retrying in {} ms", changes.size(), backoff, e);
+        try {
+          Thread.sleep(backoff);
+        } catch (InterruptedException ie) {
+          if (!running) {
+            log.error("Shutting down with {} standings changes unapplied; the startup rebuild will recover them", changes.size());
+            return;
+          }
+        }
+        backoff = Math.min(backoff * 2, 5000);
+      }
+    }
+    batchSize.record(changes.size());
+    done(batch, changes.size());
+  }
+
+  // Connection and transaction start failures, and serialization or deadlock aborts: waiting fixes these.
+  // Anything else (a constraint violation, bad data) fails the same way every time.
+  private static boolean databaseUnavailable(RuntimeException e) {
+    return e instanceof TransientDataAccessException || e instanceof RecoverableDataAccessException
+        || e instanceof DataAccessResourceFailureException || e instanceof CannotCreateTransactionException;
+  }
+
+  // A batch that cannot be applied would otherwise hold the writer and its backlog room forever. It is
+  // dropped with everything queued behind it, and the seasons they touch are rebuilt from matches, which
+  // already hold every one of those results.
+  private void giveUp(List<Pending> batch, List<ResultChange> changes, RuntimeException cause) {
+    List<Pending> behind = new ArrayList<>();
+    queue.drainTo(behind);
+    int dropped = changes.size();
+    var seasons = new TreeSet<Integer>();
+    changes.forEach(c -> seasons.add(c.seasonId()));
+    for (Pending p : behind) {
+      dropped += p.changes().size();
+      p.changes().forEach(c -> seasons.add(c.seasonId()));
+    }
+    log.error("Standings update failed {} times; dropping {} changes and rebuilding seasons {}: {}",
+        MAX_ATTEMPTS, dropped, seasons, changes, cause);
+    deadLettered.increment(dropped);
+    batch.addAll(behind);
+    for (int season : seasons) {
+      try {
+        engine.rebuild(season);
+      } catch (RuntimeException e) {
+        log.error("Rebuild of season {} failed; run /admin/standings/check once the cause is fixed", season, e);
+      }
+    }
+    done(batch, dropped);
+  }
+
+  private void done(List<Pending> batch, int changes) {
+    room.release(changes);
+    synchronized (progress) {
+      applied = batch.get(batch.size() - 1).seq();
+      progress.notifyAll();
+    }
+  }
+
+  /**
+   * Full rebuild with the writer paused and its queue applied first, so queued deltas are not counted
+   * on top of the rebuilt rows. A result that commits while the rebuild itself runs can still be counted
+   * twice; follow up with /admin/standings/check if results were flowing at the time.
+   *
+   * @param seasonId the season to rebuild, or null for every competition's current season
+   */
+  public void rebuild(Integer seasonId) {
+    Runnable rebuild = seasonId == null ? engine::rebuild : () -> engine.rebuild(seasonId);
+    if (!writeBehind) {
+      rebuild.run();
+      return;
+    }
+    synchronized (applying) {
+      List<Pending> batch = new ArrayList<>();
+      queue.drainTo(batch);
+      if (!batch.isEmpty()) applyWithRetry(batch);
+      rebuild.run();
+    }
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    if (worker == null) return;
+    running = false;
+    worker.interrupt();
+    worker.join(10_000);
+  }
+}
@@ -0,0 +1,20 @@
+package app.premierleague.service;
+
+import app.premierleague.domain.Match;
+
+/** Per-item answer to a batch submission; {@code outcome} is OK, NOT_FOUND or INVALID. */
+public record SubmissionOutcome(long matchId, String outcome, String status,
+                                Integer homeGoals, Integer awayGoals, String message) {
+
+  public static SubmissionOutcome ok(Match m) {
+    return new SubmissionOutcome(m.getId(), "OK", m.getStatus(), m.getHomeGoals(), m.getAwayGoals(), "OK");
+  }
+
+  public static SubmissionOutcome notFound(ResultSubmission s) {
+    return new SubmissionOutcome(s.matchId(), "NOT_FOUND", null, null, null, "Match not found: " + s.matchId());
+  }
+
+  public static SubmissionOutcome invalid(ResultSubmission s, String message) {
+    return new SubmissionOutcome(s.matchId(), "INVALID", null, null, null, message);
+  }
+}
@@ -0,0 +1,12 @@
+package app.premierleague.service;
+
+import app.premierleague.domain.Standing;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.util.List;
+
+/** Rows of the league table whose numbers or position moved in the latest snapshot swap. */
+public record TableChangedEvent(List<Row> rows) {
+
+  public record Row(int position, @JsonUnwrapped Standing standing) {}
+}
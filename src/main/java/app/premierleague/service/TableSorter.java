@@ -0,0 +1,117 @@
+package app.premierleague.service;
+
+import java.util.List;
+
+/**
+ * One ranking pass over a table under a {@link RankingRules} criteria list, shared by the live tables
+ * ({@link RankingEngine}) and the simulated ones ({@link SeasonSimulation}).
+ *
+ * Lines are slots 0..n-1 into the caller's arrays, and head-to-head figures come from a {@link Pairwise} view
+ * over the same slots. Groups of level teams are sorted in place by the next criterion. A head-to-head criterion
+ * that leaves a smaller group level sends it back to the first head-to-head criterion of its run, so the
+ * mini-league is recomputed over just those teams. Teams level on everything go to the caller's
+ * {@link Unresolved} order. An instance reuses its scratch arrays, so one per thread sorts table after table
+ * without allocating.
+ */
+final class TableSorter {
+
+  /** Head-to-head figures between two slots: what i took off j. */
+  interface Pairwise {
+    int points(int i, int j);
+    int goals(int i, int j);
+    int awayGoals(int i, int j);
+  }
+
+  /** Orders idx[lo, hi), slots level on every criterion. */
+  interface Unresolved {
+    void order(int[] idx, int lo, int hi);
+  }
+
+  private final List<RankingRules.Criterion> criteria;
+  private int[] idx = new int[0];
+  private long[] value = new long[0];
+  private int[] points, gd, gf, won, awayGoals;
+  private Pairwise h2h;
+  private Unresolved unresolved;
+
+  TableSorter(List<RankingRules.Criterion> criteria) {
+    this.criteria = criteria;
+  }
+
+  /** Slots 0..n-1 in table order, in an array the next call overwrites. */
+  int[] sort(int n, int[] points, int[] gd, int[] gf, int[] won, int[] awayGoals, Pairwise h2h, Unresolved unresolved) {
+    if (idx.length != n) {
+      idx = new int[n];
+      value = new long[n];
+    }
+    this.points = points;
+    this.gd = gd;
+    this.gf = gf;
+    this.won = won;
+    this.awayGoals = awayGoals;
+    this.h2h = h2h;
+    this.unresolved = unresolved;
+    for (int i = 0; i < n; i++) idx[i] = i;
+    sort(0, n, 0);
+    return idx;
+  }
+
+  private void sort(int lo, int hi, int k) {
+    if (hi - lo < 2) return;
+    if (k == criteria.size()) {
+      unresolved.order(idx, lo, hi);
+      return;
+    }
+    var c = criteria.get(k);
+    for (int p = lo; p < hi; p++) value[idx[p]] = value(c, idx[p], lo, hi);
+    descending(lo, hi);
+    for (int a = lo; a < hi; ) {
+      int b = a + 1;
+      while (b < hi && value[idx[b]] == value[idx[a]]) b++;
+      if (b - a > 1) sort(a, b, c.headToHead && b - a < hi - lo ? firstOfRun(k) : k + 1);
+      a = b;
+    }
+  }
+
+  private long value(RankingRules.Criterion c, int i, int lo, int hi) {
+    return switch (c) {
+      case POINTS -> points[i];
+      case GOAL_DIFFERENCE -> gd[i];
+      case GOALS_FOR -> gf[i];
+      case WINS -> won[i];
+      case AWAY_GOALS_FOR -> awayGoals[i];
+      case H2H_POINTS, H2H_GOAL_DIFFERENCE, H2H_GOALS_FOR, H2H_AWAY_GOALS_FOR -> {
+        long v = 0;
+        for (int p = lo; p < hi; p++) {
+          int o = idx[p];
+          if (o == i) continue;
+          v += switch (c) {
+            case H2H_POINTS -> h2h.points(i, o);
+            case H2H_GOAL_DIFFERENCE -> h2h.goals(i, o) - h2h.goals(o, i);
+            case H2H_GOALS_FOR -> h2h.goals(i, o);
+            default -> h2h.awayGoals(i, o);
+          };
+        }
+        yield v;
+      }
+    };
+  }
+
+  private int firstOfRun(int k) {
+    while (k > 0 && criteria.get(k - 1).headToHead) k--;
+    return k;
+  }
+
+  // at most one table's worth of teams, so insertion sort; stable, which keeps earlier ties in input order
+  private void descending(int lo, int hi) {
+    for (int p = lo + 1; p < hi; p++) {
+      int x = idx[p];
+      int q = p - 1;
+      while (q >= lo && value[idx[q]] < value[x]) {
+        idx[q + 1] = idx[q];
+        q--;
+      }
+      idx[q + 1] = x;
+    }
+  }
+}
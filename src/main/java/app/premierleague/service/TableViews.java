@@ -0,0 +1,233 @@
+package app.premierleague.service;
+
+import app.premierleague.db.ReadRouting;
+import app.premierleague.domain.Match;
+import app.premierleague.domain.Team;
+import app.premierleague.repository.MatchRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The views the web client shows for the current season, computed on the server from its FT matches: the table
+ * with last-5 form, the home-only and away-only tables, and per-team goal stats.
+ *
+ * Like {@link LeagueTable}, each view is an immutable pre-serialized payload with an ETag, rebuilt once per
+ * committed standings change, so a page load is a few small cached responses rather than the match history.
+ * At startup the first views can come from a {@link ColumnarSnapshot} file instead.
+ */
+@Component
+public class TableViews {
+
+  public static final int FORM_LENGTH = 5;
+
+  public enum Venue { ALL, HOME, AWAY }
+
+  /** One table line; form is the last results oldest first, e.g. "WWDLW". */
+  public record Row(int position, int teamId, String team,
+                    int p, int w, int d, int l, int gf, int ga, int gd, int pts, String form) {}
+
+  public record GoalStats(int teamId, String team, int played, int gf, int ga,
+                          double gfPerMatch, double gaPerMatch, int cleanSheets, int failedToScore) {}
+
+  public record View(byte[] json, String etag) {}
+
+  public record Snapshot(int seasonId, List<Row> table, List<Row> home, List<Row> away, List<GoalStats> goals,
+                         View tableView, View homeView, View awayView, View goalsView) {
+
+    public View view(Venue venue) {
+      return switch (venue) {
+        case ALL -> tableView;
+        case HOME -> homeView;
+        case AWAY -> awayView;
+      };
+    }
+  }
+
+  // one FT result, in kickoff order
+  private record Result(int homeTeamId, int awayTeamId, int homeGoals, int awayGoals) {}
+
+  private final MatchRepository matches;
+  private final LeagueTable leagueTable;
+  private final Teams teams;
+  private final Seasons seasons;
+  private final RankingEngine ranking;
+  private final ObjectMapper mapper;
+  private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+  public TableViews(MatchRepository matches, LeagueTable leagueTable, Teams teams, Seasons seasons,
+                    RankingEngine ranking, ObjectMapper mapper) {
+    this.matches = matches;
+    this.leagueTable = leagueTable;
+    this.teams = teams;
+    this.seasons = seasons;
+    this.ranking = ranking;
+    this.mapper = mapper;
+  }
+
+  public Snapshot current() {
+    var snap = current.get();
+    return snap != null ? snap : refresh();
+  }
+
+  // after SnapshotArchive.warm, which may have published the views already
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    current();
+  }
+
+  /**
+   * Publishes the current season's views from the snapshot's FT rows, unless views are loaded already; returns
+   * whether it did. The caller has checked that the snapshot matches the database.
+   */
+  synchronized boolean warm(ColumnarSnapshot snap) {
+    if (current.get() != null) return false;
+    var season = seasons.current(Seasons.DEFAULT_COMPETITION);
+    var m = snap.matches();
+    // the file is in season, kickoff, id order, as the repository query
+    List<Result> played = new ArrayList<>();
+    for (int r = 0; r < m.size(); r++) {
+      if (m.seasonId(r) != season.id() || m.statusCode(r) != ColumnarSnapshot.FT) continue;
+      played.add(new Result(m.homeTeamId(r), m.awayTeamId(r), m.homeGoals(r), m.awayGoals(r)));
+    }
+    publish(season, played);
+    return true;
+  }
+
+  // ahead of LeagueTable: its TableChangedEvent is what tells clients to refetch, so these must be fresh by then
+  @Order(Ordered.HIGHEST_PRECEDENCE)
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onStandingsChanged(StandingsChangedEvent e) {
+    refresh();
+  }
+
+  synchronized Snapshot refresh() {
+    var season = seasons.current(Seasons.DEFAULT_COMPETITION);
+    List<Match> played = ReadRouting.onPrimary(() -> matches.findBySeasonIdAndStatusOrderByKickoffAscIdAsc(season.id(), "FT"));
+    return publish(season, played.stream()
+        .map(m -> new Result(m.getHomeTeamId(), m.getAwayTeamId(), m.getHomeGoals(), m.getAwayGoals())).toList());
+  }
+
+  private Snapshot publish(Season season, List<Result> played) {
+    // every team with a standings row gets a line, played or not
+    var roster = new LinkedHashMap<Integer, Tally[]>();
+    for (var s : leagueTable.current().rows()) roster.put(s.getTeamId(), newTallies());
+    for (Result m : played) {
+      var home = roster.computeIfAbsent(m.homeTeamId(), id -> newTallies());
+      var away = roster.computeIfAbsent(m.awayTeamId(), id -> newTallies());
+      int hg = m.homeGoals(), ag = m.awayGoals();
+      home[Venue.ALL.ordinal()].add(hg, ag);
+      home[Venue.HOME.ordinal()].add(hg, ag);
+      away[Venue.ALL.ordinal()].add(ag, hg);
+      away[Venue.AWAY.ordinal()].add(ag, hg);
+    }
+
+    var names = teams.current().byId();
+    var table = rows(roster, Venue.ALL, names, season);
+    var home = rows(roster, Venue.HOME, names, null);
+    var away = rows(roster, Venue.AWAY, names, null);
+    var goals = table.stream().map(r -> goalStats(r, roster.get(r.teamId())[Venue.ALL.ordinal()])).toList();
+    var snap = new Snapshot(season.id(), table, home, away, goals,
+        serialize(table), serialize(home), serialize(away), serialize(goals));
+    current.set(snap);
+    return snap;
+  }
+
+  private static Tally[] newTallies() {
+    var t = new Tally[Venue.values().length];
+    for (int i = 0; i < t.length; i++) t[i] = new Tally();
+    return t;
+  }
+
+  // The overall table follows the competition's ranking rules, head-to-head included. Home and away tables
+  // cover half the meetings each, so they stop at points, goal difference, goals and then name.
+  private List<Row> rows(Map<Integer, Tally[]> roster, Venue venue, Map<Integer, Team> names, Season ranked) {
+    record Line(int teamId, String team, Tally t) {}
+    var lines = new ArrayList<Line>(roster.size());
+    roster.forEach((id, tallies) -> {
+      var team = names.get(id);
+      lines.add(new Line(id, team != null ? team.getName() : "Team " + id, tallies[venue.ordinal()]));
+    });
+    List<Line> ordered = lines;
+    if (ranked != null) {
+      int[] order = ranking.order(ranked, lines.stream()
+          .map(x -> new RankingEngine.Totals(x.teamId(), x.t().pts(), x.t().gd(), x.t().gf, x.t().w)).toList());
+      var sorted = new ArrayList<Line>(lines.size());
+      for (int i : order) sorted.add(lines.get(i));
+      ordered = sorted;
+    } else {
+      lines.sort(Comparator.<Line>comparingInt(x -> -x.t().pts())
+          .thenComparingInt(x -> -x.t().gd())
+          .thenComparingInt(x -> -x.t().gf)
+          .thenComparing(Line::team));
+    }
+    var rows = new ArrayList<Row>(ordered.size());
+    for (var x : ordered) {
+      var t = x.t();
+      rows.add(new Row(rows.size() + 1, x.teamId(), x.team(), t.w + t.d + t.l, t.w, t.d, t.l,
+          t.gf, t.ga, t.gd(), t.pts(), t.form()));
+    }
+    return List.copyOf(rows);
+  }
+
+  private static GoalStats goalStats(Row r, Tally t) {
+    return new GoalStats(r.teamId(), r.team(), r.p(), r.gf(), r.ga(),
+        perMatch(r.gf(), r.p()), perMatch(r.ga(), r.p()), t.cleanSheets, t.failedToScore);
+  }
+
+  private static double perMatch(int goals, int played) {
+    return played == 0 ? 0 : Math.round(goals * 100.0 / played) / 100.0;
+  }
+
+  private View serialize(Object rows) {
+    try {
+      byte[] json = mapper.writeValueAsBytes(rows);
+      return new View(json, "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not serialize table view", e);
+    }
+  }
+
+  // one team's results at one venue, fed in kickoff order
+  private static final class Tally {
+    int w, d, l, gf, ga, cleanSheets, failedToScore;
+    final char[] recent = new char[FORM_LENGTH];
+    int results;
+
+    void add(int scored, int conceded) {
+      gf += scored;
+      ga += conceded;
+      if (conceded == 0) cleanSheets++;
+      if (scored == 0) failedToScore++;
+      char r;
+      if (scored > conceded) { w++; r = 'W'; }
+      else if (scored < conceded) { l++; r = 'L'; }
+      else { d++; r = 'D'; }
+      recent[results++ % FORM_LENGTH] = r;
+    }
+
+    int gd() { return gf - ga; }
+
+    int pts() { return 3 * w + d; }
+
+    String form() {
+      int n = Math.min(results, FORM_LENGTH);
+      var sb = new StringBuilder(n);
+      for (int i = results - n; i < results; i++) sb.append(recent[i % FORM_LENGTH]);
+      return sb.toString();
+    }
+  }
+}
@@ -0,0 +1,107 @@
+package app.premierleague.service;
+
+import app.premierleague.db.ReadRouting;
+import app.premierleague.domain.Team;
+import app.premierleague.repository.TeamRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.DigestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The teams table as a cached, pre-serialized snapshot, for GET /teams and for team-id validation.
+ *
+ * It is loaded at startup and dropped after a team write commits. The next reader reloads it, and concurrent
+ * readers that miss wait on that one load instead of each running their own query. A load that started
+ * before a write committed is handed to its waiters but not kept.
+ */
+@Service
+public class Teams {
+
+  public record Snapshot(List<Team> rows, Map<Integer, Team> byId, byte[] json, String etag, Instant lastModified) {}
+
+  private final TeamRepository repo;
+  private final ObjectMapper mapper;
+  private final CoalescingCache<Snapshot> cache = new CoalescingCache<>(this::read);
+  private volatile Snapshot last;
+
+  public Teams(TeamRepository repo, ObjectMapper mapper) {
+    this.repo = repo;
+    this.mapper = mapper;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void load() {
+    current();
+  }
+
+  public Snapshot current() {
+    return cache.get();
+  }
+
+  public Team get(int id) {
+    var team = current().byId().get(id);
+    if (team == null) throw new IllegalArgumentException("Unknown team: " + id);
+    return team;
+  }
+
+  /** Sets a team's owner; the cache is dropped once the write commits. */
+  @Transactional
+  public Team setOwner(int id, String owner) {
+    var team = repo.findById(id).orElseThrow(() -> new IllegalArgumentException("Team not found: " + id));
+    team.setOwner(owner);
+    var saved = repo.save(team);
+    invalidateAfterCommit();
+    return saved;
+  }
+
+  /** For any other team write: drops the cache when the caller's transaction commits, or now without one. */
+  public void invalidateAfterCommit() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      invalidate();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCommit() {
+        invalidate();
+      }
+    });
+  }
+
+  private void invalidate() {
+    cache.invalidate();
+  }
+
+  private Snapshot read() {
+    var snap = read(last);
+    last = snap;
+    return snap;
+  }
+
+  private Snapshot read(Snapshot previous) {
+    List<Team> rows = List.copyOf(ReadRouting.onPrimary(() -> repo.findAll(Sort.by("id"))));
+    try {
+      byte[] json = mapper.writeValueAsBytes(rows);
+      String etag = "\"" + DigestUtils.md5DigestAsHex(json) + "\"";
+      // unchanged content keeps its Last-Modified, so a reload alone does not make clients refetch
+      Instant lastModified = previous != null && previous.etag().equals(etag) ? previous.lastModified() : Instant.now();
+      return new Snapshot(rows, rows.stream().collect(Collectors.toUnmodifiableMap(Team::getId, Function.identity())),
+          json, etag, lastModified);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Could not serialize teams", e);
+    }
+  }
+}
@@ -2,6 +2,8 @@ const els = {
   standingsBody: null,
   gamesBody: null,
   teamSelect: null,
+  viewSelect: null,
+  teamStats: null,
   msg: null
 };
 
@@ -38,34 +40,10 @@ function normalizeMatch(m){
   };
 }
 
-function computeStandings(matches, teamMap){
-  const table = new Map();
-  for(const [id,name] of teamMap){
-    table.set(id, { teamId:id, team:name, p:0,w:0,d:0,l:0,gf:0,ga:0,gd:0,pts:0 });
-  }
-  for(const raw of matches){
-    const m = normalizeMatch(raw);
-    if(m.status !== 'FT') continue;
-    const home = table.get(m.homeId), away = table.get(m.awayId);
-    if(!home || !away) continue;
-
-    home.p++; away.p++;
-    home.gf += m.homeGoals; home.ga += m.awayGoals;
-    away.gf += m.awayGoals; away.ga += m.homeGoals;
-    home.gd = home.gf - home.ga; away.gd = away.gf - away.ga;
-
-    if(m.homeGoals > m.awayGoals){ home.w++; away.l++; home.pts += 3; }
-    else if(m.homeGoals < m.awayGoals){ away.w++; home.l++; away.pts += 3; }
-    else { home.d++; away.d++; home.pts++; away.pts++; }
-  }
-  return Array.from(table.values())
-    .sort((a,b)=> b.pts - a.pts || b.gd - a.gd || b.gf - a.gf || a.team.localeCompare(b.team));
-}
-
 function renderStandings(rows){
   els.standingsBody.innerHTML = rows.map((r,i)=>`
     <tr>
-      <td class="mono">${i+1}</td>
+      <td class="mono">${r.position ?? i+1}</td>
       <td>${esc(r.team)}</td>
       <td class="right mono">${r.p}</td>
       <td class="right mono">${r.w}</td>
@@ -75,6 +53,7 @@ function renderStandings(rows){
       <td class="right mono">${r.ga}</td>
       <td class="right mono">${r.gd}</td>
       <td class="right mono">${r.pts}</td>
+      <td class="form">${esc(r.form)}</td>
     </tr>
   `).join('');
 }
@@ -109,8 +88,7 @@ function esc(s){
 }
 
 
-async function loadFixturesForTeam(teamId, globalMatches){
-  // 1) Prefer the server’s filtered endpoint
+async function loadFixturesForTeam(teamId){
   try {
     const dto = await jget(`/teams/${teamId}/fixtures?status=FT`);  // <-- add status=FT
     if (Array.isArray(dto) && dto.length) {
@@ -132,17 +110,47 @@ async function loadFixturesForTeam(teamId, globalMatches){
         }));
       }
     }
-  } catch { /* fall through to fallback */ }
-
-  // 2) Fallback: filter from the global match list we already loaded
-  return globalMatches
-    .map(normalizeMatch)
-    .filter(m =>
-      (m.homeId === String(teamId) || m.awayId === String(teamId)) &&
-      m.status === 'FT'
-    );
+  } catch (e) { console.error(e); }
+  return [];
 }
 
+// Table views are computed on the server (/table/form, /table/home, /table/away, /table/goals) and
+// revalidated by ETag, so a refresh is usually a 304.
+async function loadTable(){
+  renderStandings(await jget(`/table/${els.viewSelect.value}`));
+}
+
+async function loadTeamStats(teamId){
+  const goals = await jget('/table/goals');
+  const g = goals.find(x => String(x.teamId) === String(teamId));
+  els.teamStats.textContent = g
+    ? `Scored ${g.gf} (${g.gfPerMatch.toFixed(2)}/game) · Conceded ${g.ga} (${g.gaPerMatch.toFixed(2)}/game) · `
+      + `Clean sheets ${g.cleanSheets} · Failed to score ${g.failedToScore}`
+    : '';
+}
+
+async function showTeam(teamId, teamMap){
+  const [fixtures] = await Promise.all([loadFixturesForTeam(teamId), loadTeamStats(teamId)]);
+  renderTeamGamesFromList(teamId, fixtures, teamMap);
+}
+
+// Live updates: 'standings' follows every committed table change, by which time the server views are
+// rebuilt; 'match' tells us whether the selected team's results changed.
+function subscribeLive(teamMap){
+  if (!window.EventSource) return;
+  const es = new EventSource(api('/stream'));
+  es.addEventListener('standings', () => {
+    loadTable().catch(console.error);
+    loadTeamStats(els.teamSelect.value).catch(console.error);
+  });
+  es.addEventListener('match', ev => {
+    const m = normalizeMatch(JSON.parse(ev.data));
+    const teamId = String(els.teamSelect.value);
+    if (teamId === m.homeId || teamId === m.awayId) {
+      loadFixturesForTeam(teamId).then(f => renderTeamGamesFromList(teamId, f, teamMap));
+    }
+  });
+}
 
 function renderTeamGamesFromList(teamId, items, teamMap){
   const tid = String(teamId); // normalize
@@ -181,12 +189,14 @@ async function main(){
   els.standingsBody = document.querySelector('#standingsTable tbody');
   els.gamesBody     = document.querySelector('#gamesTable tbody');
   els.teamSelect    = document.getElementById('teamSelect');
+  els.viewSelect    = document.getElementById('viewSelect');
+  els.teamStats     = document.getElementById('teamStats');
   els.msg           = document.getElementById('msg');
 
   try {
-    const [teams, matches] = await Promise.all([
+    const [teams] = await Promise.all([
       jget('/teams'),
-      jget('/matches')
+      loadTable()
     ]);
 
     const teamMap = buildTeamMap(teams);
@@ -199,25 +209,23 @@ async function main(){
       .map(t => `<option value="${t.id}">${esc(t.name)}</option>`)
       .join('');
 
-    // ALWAYS compute standings from matches so it's never stale
-    const standings = computeStandings(matches, teamMap);
-    renderStandings(standings);
+    els.viewSelect.addEventListener('change', () => loadTable().catch(console.error));
 
     // Initial render
     const initialTeamId = String(sortedTeams[0]?.id || '');
     if (initialTeamId) {
       els.teamSelect.value = initialTeamId;
-      const fixtures = await loadFixturesForTeam(initialTeamId, matches);
-      renderTeamGamesFromList(initialTeamId, fixtures, teamMap);
+      await showTeam(initialTeamId, teamMap);
     }
 
     // On change
     els.teamSelect.addEventListener('change', async () => {
       const teamId = String(els.teamSelect.value);
-      const fixtures = await loadFixturesForTeam(teamId, matches);
-      renderTeamGamesFromList(teamId, fixtures, teamMap);
+      await showTeam(teamId, teamMap);
     });
 
+    subscribeLive(teamMap);
+
   } catch (e){
     console.error(e);
     els.msg.textContent = 'Failed to load data.';